@@ -0,0 +1,102 @@
+package com.autobooking.api.benchmark;
+
+import com.autobooking.api.repository.BookingRepository;
+import com.autobooking.api.service.AvailabilityIndex;
+import com.autobooking.api.service.BookingService;
+import com.autobooking.api.service.CatalogVersion;
+import com.autobooking.api.service.ProductLockStripes;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluación de solapamientos de BookingService.isProductAvailable con el índice cargado:
+ * rangos cortos (resueltos por el calendario de ocupación) y rangos que salen del horizonte del
+ * calendario (resueltos por búsqueda binaria sobre los intervalos).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailabilityBenchmark {
+
+    private static final int QUERIES = 1024;
+
+    @Param({"100", "10000"})
+    public int fleetSize;
+
+    @Param({"4", "64"})
+    public int bookingsPerProduct;
+
+    private BookingService bookingService;
+    private AvailabilityIndex availabilityIndex;
+
+    private long[] productIds;
+    private LocalDate[] shortStarts;
+    private LocalDate[] shortEnds;
+    private LocalDate[] longStarts;
+    private LocalDate[] longEnds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Object[]> ranges = BenchmarkData.bookingRanges(fleetSize, bookingsPerProduct);
+        BookingRepository bookingRepository = BenchmarkData.repository(BookingRepository.class,
+                Map.of("findActiveBookingRanges", args -> ranges));
+        availabilityIndex = new AvailabilityIndex(bookingRepository);
+        availabilityIndex.rebuild();
+        bookingService = new BookingService(bookingRepository, null, null, availabilityIndex,
+                new ProductLockStripes(), new CatalogVersion(null, null), null, null, new SimpleMeterRegistry(), 0.0);
+
+        Random random = new Random(BenchmarkData.SEED);
+        LocalDate today = LocalDate.now();
+        productIds = new long[QUERIES];
+        shortStarts = new LocalDate[QUERIES];
+        shortEnds = new LocalDate[QUERIES];
+        longStarts = new LocalDate[QUERIES];
+        longEnds = new LocalDate[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            productIds[i] = 1 + random.nextInt(fleetSize);
+            shortStarts[i] = today.plusDays(random.nextInt(BenchmarkData.HORIZON_DAYS));
+            shortEnds[i] = shortStarts[i].plusDays(1 + random.nextInt(7));
+            longStarts[i] = today.plusDays(random.nextInt(BenchmarkData.HORIZON_DAYS));
+            longEnds[i] = longStarts[i].plusDays(BenchmarkData.HORIZON_DAYS);
+        }
+    }
+
+    @Benchmark
+    public boolean isProductAvailableShortRange() {
+        int i = next++ & (QUERIES - 1);
+        return bookingService.isProductAvailable(productIds[i], shortStarts[i], shortEnds[i]);
+    }
+
+    @Benchmark
+    public boolean isProductAvailableLongRange() {
+        int i = next++ & (QUERIES - 1);
+        return bookingService.isProductAvailable(productIds[i], longStarts[i], longEnds[i]);
+    }
+
+    @Benchmark
+    public boolean intervalOverlap() {
+        int i = next++ & (QUERIES - 1);
+        return availabilityIndex.hasOverlap(productIds[i], shortStarts[i], shortEnds[i]);
+    }
+}
@@ -0,0 +1,149 @@
+package com.autobooking.api.benchmark;
+
+import com.autobooking.api.model.Booking;
+import com.autobooking.api.model.Category;
+import com.autobooking.api.model.Feature;
+import com.autobooking.api.model.Product;
+import com.autobooking.api.model.User;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Datos sintéticos y repositorios en memoria para los benchmarks. Los datos se generan con una
+ * semilla fija, así cada ejecución mide exactamente la misma flota y las mismas reservas.
+ */
+final class BenchmarkData {
+
+    static final long SEED = 42L;
+
+    // Horizonte en el que se reparten las reservas y las consultas, en días desde hoy
+    static final int HORIZON_DAYS = 730;
+
+    private static final int CATEGORIES = 8;
+    private static final int FEATURES = 16;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Flota de productos con IDs 1..size, cada uno con categoría, características e imágenes.
+     */
+    static List<Product> fleet(int size) {
+        Random random = new Random(SEED);
+        List<Category> categories = new ArrayList<>();
+        for (int i = 1; i <= CATEGORIES; i++) {
+            Category category = new Category("Categoría " + i);
+            category.setId((long) i);
+            categories.add(category);
+        }
+        List<Feature> features = new ArrayList<>();
+        for (int i = 1; i <= FEATURES; i++) {
+            Feature feature = new Feature("Característica " + i, "icon-" + i);
+            feature.setId((long) i);
+            features.add(feature);
+        }
+
+        List<Product> products = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            List<String> images = new ArrayList<>();
+            for (int j = 0; j < 4; j++) {
+                images.add("http://localhost:8080/api/images/" + String.format("%064x", (long) i * 31 + j));
+            }
+            Product product = new Product("Auto " + i, "Descripción del auto " + i + ". " + "x".repeat(200),
+                    images, categories.get(random.nextInt(CATEGORIES)),
+                    BigDecimal.valueOf(30 + random.nextInt(170)));
+            product.setId((long) i);
+            Set<Feature> productFeatures = new HashSet<>();
+            for (int j = 0; j < 5; j++) {
+                productFeatures.add(features.get(random.nextInt(FEATURES)));
+            }
+            product.setFeatures(productFeatures);
+            products.add(product);
+        }
+        return products;
+    }
+
+    /**
+     * Reservas activas sin solapamientos dentro de cada producto, en el formato de
+     * BookingRepository.findActiveBookingRanges: {bookingId, productId, inicio, fin}.
+     */
+    static List<Object[]> bookingRanges(int fleetSize, int bookingsPerProduct) {
+        Random random = new Random(SEED);
+        LocalDate today = LocalDate.now();
+        int slot = Math.max(2, HORIZON_DAYS / bookingsPerProduct);
+        List<Object[]> ranges = new ArrayList<>(fleetSize * bookingsPerProduct);
+        long bookingId = 1;
+        for (long productId = 1; productId <= fleetSize; productId++) {
+            for (int k = 0; k < bookingsPerProduct; k++) {
+                int length = 1 + random.nextInt(Math.min(7, slot - 1));
+                int offset = k * slot + random.nextInt(slot - length + 1);
+                LocalDate start = today.plusDays(offset);
+                ranges.add(new Object[] {bookingId++, productId, start, start.plusDays(length - 1)});
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * Reservas completas (usuario y producto) para medir la serialización.
+     */
+    static List<Booking> bookings(List<Product> products, int count) {
+        Random random = new Random(SEED);
+        User user = new User();
+        user.setId(1L);
+        user.setFirstName("Cliente");
+        user.setLastName("Prueba");
+        user.setEmail("cliente@example.com");
+        user.setPassword("$2a$10$abcdefghijklmnopqrstuv");
+        List<Booking> bookings = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Product product = products.get(random.nextInt(products.size()));
+            LocalDate start = LocalDate.now().plusDays(random.nextInt(HORIZON_DAYS));
+            Booking booking = new Booking();
+            booking.setId((long) i);
+            booking.setUser(user);
+            booking.setProduct(product);
+            booking.setStartDate(start);
+            booking.setEndDate(start.plusDays(3));
+            booking.setTotalPrice(product.getPrice().multiply(BigDecimal.valueOf(4)));
+            booking.setStatus(Booking.BookingStatus.CONFIRMED);
+            booking.setCreatedAt(LocalDate.now());
+            bookings.add(booking);
+        }
+        return bookings;
+    }
+
+    /**
+     * Implementación en memoria de una interfaz de repositorio: cada método se resuelve con el
+     * handler registrado bajo su nombre; cualquier otro método falla, para que un benchmark no
+     * mida por error un camino que en producción iría a la base de datos.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T repository(Class<T> type, Map<String, Function<Object[], Object>> handlers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "toString":
+                    return type.getSimpleName() + "(benchmark)";
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    Function<Object[], Object> handler = handlers.get(method.getName());
+                    if (handler == null) {
+                        throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+                    }
+                    return handler.apply(args);
+            }
+        });
+    }
+}
@@ -0,0 +1,74 @@
+package com.autobooking.api.benchmark;
+
+import com.autobooking.api.dto.ProductSummary;
+import com.autobooking.api.model.Booking;
+import com.autobooking.api.model.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización con Jackson de las respuestas de listados: productos completos, su resumen
+ * (ProductSummary) y reservas con su producto. El ObjectMapper se construye igual que el de
+ * Spring Boot (Jackson2ObjectMapperBuilder).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Product> products;
+    private List<ProductSummary> summaries;
+    private List<Booking> bookings;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        products = BenchmarkData.fleet(size);
+        summaries = new ArrayList<>(size);
+        for (Product product : products) {
+            ProductSummary summary = new ProductSummary(product.getId(), product.getName(), product.getPrice(),
+                    product.getCategory().getName(), product.getImages().get(0));
+            product.getFeatures().forEach(feature -> summary.getFeatureIds().add(feature.getId()));
+            summaries.add(summary);
+        }
+        bookings = BenchmarkData.bookings(products, size);
+    }
+
+    @Benchmark
+    public byte[] products() throws Exception {
+        return objectMapper.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public byte[] productSummaries() throws Exception {
+        return objectMapper.writeValueAsBytes(summaries);
+    }
+
+    @Benchmark
+    public byte[] bookings() throws Exception {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+}
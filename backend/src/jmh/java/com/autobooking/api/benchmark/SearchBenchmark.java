@@ -0,0 +1,97 @@
+package com.autobooking.api.benchmark;
+
+import com.autobooking.api.model.Product;
+import com.autobooking.api.repository.BookingRepository;
+import com.autobooking.api.repository.ProductRepository;
+import com.autobooking.api.service.AvailabilityIndex;
+import com.autobooking.api.service.CatalogVersion;
+import com.autobooking.api.service.ImageStore;
+import com.autobooking.api.service.ProductService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Filtrado por disponibilidad de ProductService.searchProducts con el índice cargado. El
+ * repositorio devuelve la flota desde memoria, así se mide solo el trabajo de la aplicación y no
+ * la consulta a la base de datos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+
+    private static final int QUERIES = 256;
+
+    @Param({"100", "1000", "10000"})
+    public int fleetSize;
+
+    @Param({"4", "32"})
+    public int bookingsPerProduct;
+
+    private ProductService productService;
+
+    private String[] startDates;
+    private String[] endDates;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Product> fleet = BenchmarkData.fleet(fleetSize);
+        Map<Long, List<Product>> byCategory = fleet.stream()
+                .collect(Collectors.groupingBy(product -> product.getCategory().getId()));
+        ProductRepository productRepository = BenchmarkData.repository(ProductRepository.class, Map.of(
+                "findFiltered", args -> args[0] == null ? fleet : byCategory.getOrDefault((Long) args[0], List.of())));
+
+        List<Object[]> ranges = BenchmarkData.bookingRanges(fleetSize, bookingsPerProduct);
+        AvailabilityIndex availabilityIndex = new AvailabilityIndex(BenchmarkData.repository(BookingRepository.class,
+                Map.of("findActiveBookingRanges", args -> ranges)));
+        availabilityIndex.rebuild();
+
+        productService = new ProductService(productRepository, null, availabilityIndex,
+                new ImageStore("target/jmh/images", "http://localhost:8080/api/images"), new CatalogVersion(null, null),
+                null, null, new SimpleMeterRegistry(), 0.0);
+
+        Random random = new Random(BenchmarkData.SEED);
+        LocalDate today = LocalDate.now();
+        startDates = new String[QUERIES];
+        endDates = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            LocalDate start = today.plusDays(random.nextInt(BenchmarkData.HORIZON_DAYS));
+            startDates[i] = start.toString();
+            endDates[i] = start.plusDays(1 + random.nextInt(7)).toString();
+        }
+    }
+
+    @Benchmark
+    public List<Product> searchByDates() {
+        int i = next++ & (QUERIES - 1);
+        return productService.searchProducts(startDates[i], endDates[i], null, null);
+    }
+
+    @Benchmark
+    public List<Product> searchByDatesAndCategory() {
+        int i = next++ & (QUERIES - 1);
+        return productService.searchProducts(startDates[i], endDates[i], 1L + (i & 7), null);
+    }
+}
@@ -0,0 +1,252 @@
+package com.autobooking.api.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Genera una flota sintética a escala (productos, usuarios, reservas y favoritos) directamente
+ * por JDBC, en lotes, sobre el esquema de la aplicación (migraciones o Hibernate en el perfil loadtest).
+ *
+ * Con la misma semilla y los mismos volúmenes los datos generados son siempre los mismos (las
+ * fechas son relativas al día de ejecución). Las reservas activas de un producto nunca se
+ * solapan, igual que las que admite BookingService.
+ *
+ * Si la base de datos ya contiene usuarios generados, no se vuelve a generar nada.
+ */
+public class FleetDataGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(FleetDataGenerator.class);
+
+    static final String EMAIL_PREFIX = "flota-usuario-";
+    static final String EMAIL_DOMAIN = "@example.com";
+    private static final String PRODUCT_PREFIX = "Flota ";
+
+    // BCrypt de "password123", la misma contraseña que los usuarios de ejemplo
+    private static final String PASSWORD_HASH = "$2a$10$AbssHoRQ/hzhA8AMQhBNmOJrIv0IjCN37yfgwswElC.C7xpPE1eCu";
+
+    private static final String[] CATEGORIES = {"Sedán", "SUV", "Camioneta", "Compacto", "Deportivo", "Lujo"};
+    private static final String[][] FEATURES = {
+        {"Aire acondicionado", "snowflake"}, {"GPS", "map"}, {"Bluetooth", "bluetooth"},
+        {"Cámara de retroceso", "camera"}, {"Asientos de cuero", "chair"}, {"Techo solar", "sun"},
+        {"Transmisión automática", "cog"}, {"Tracción 4x4", "mountain"}, {"Sensores de estacionamiento", "radar"},
+        {"Carga inalámbrica", "battery"}
+    };
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int IMAGES_PER_PRODUCT = 3;
+    private static final int FEATURES_PER_PRODUCT = 4;
+
+    // Ventana de las reservas: desde PAST_DAYS atrás hasta FUTURE_DAYS adelante
+    private static final int PAST_DAYS = 180;
+    private static final int FUTURE_DAYS = 365;
+
+    private final JdbcTemplate jdbc;
+    private final long seed;
+
+    public FleetDataGenerator(DataSource dataSource, long seed) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.seed = seed;
+    }
+
+    /**
+     * Genera los volúmenes indicados.
+     *
+     * @return true si se generaron datos, false si ya existían
+     */
+    public boolean generate(int products, int bookings, int users, int favoritesPerUser) {
+        Integer existing = jdbc.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE email LIKE ?", Integer.class, EMAIL_PREFIX + "%");
+        if (existing != null && existing > 0) {
+            logger.info("fleet.generate.skipped existingUsers={}", existing);
+            return false;
+        }
+
+        long started = System.nanoTime();
+        Random random = new Random(seed);
+        List<Long> categoryIds = ensureCategories();
+        List<Long> featureIds = ensureFeatures();
+        List<Long> userIds = insertUsers(users);
+        List<Long> productIds = insertProducts(products, categoryIds, random);
+        List<BigDecimal> prices = jdbc.queryForList(
+                "SELECT price FROM products WHERE name LIKE ? ORDER BY id", BigDecimal.class, PRODUCT_PREFIX + "%");
+        insertImagesAndFeatures(productIds, featureIds, random);
+        insertBookings(bookings, productIds, prices, userIds, random);
+        insertFavorites(favoritesPerUser, userIds, productIds, random);
+
+        logger.info("fleet.generate.done products={} bookings={} users={} favoritesPerUser={} seed={} elapsedMs={}",
+                products, bookings, users, favoritesPerUser, seed,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return true;
+    }
+
+    private List<Long> ensureCategories() {
+        List<Long> ids = jdbc.queryForList("SELECT id FROM categories ORDER BY id", Long.class);
+        if (!ids.isEmpty()) {
+            return ids;
+        }
+        List<Object[]> rows = new ArrayList<>();
+        for (String name : CATEGORIES) {
+            rows.add(new Object[] {name});
+        }
+        jdbc.batchUpdate("INSERT INTO categories (name) VALUES (?)", rows);
+        return jdbc.queryForList("SELECT id FROM categories ORDER BY id", Long.class);
+    }
+
+    private List<Long> ensureFeatures() {
+        List<Long> ids = jdbc.queryForList("SELECT id FROM features ORDER BY id", Long.class);
+        if (!ids.isEmpty()) {
+            return ids;
+        }
+        List<Object[]> rows = new ArrayList<>();
+        for (String[] feature : FEATURES) {
+            rows.add(new Object[] {feature[0], feature[1]});
+        }
+        jdbc.batchUpdate("INSERT INTO features (name, icon) VALUES (?, ?)", rows);
+        return jdbc.queryForList("SELECT id FROM features ORDER BY id", Long.class);
+    }
+
+    private List<Long> insertUsers(int users) {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 1; i <= users; i++) {
+            batch.add(new Object[] {"Usuario", "Flota " + i, email(i), PASSWORD_HASH, false});
+            flushIfFull("INSERT INTO users (first_name, last_name, email, password, is_admin) VALUES (?, ?, ?, ?, ?)", batch, i == users);
+        }
+        return jdbc.queryForList("SELECT id FROM users WHERE email LIKE ? ORDER BY id", Long.class, EMAIL_PREFIX + "%");
+    }
+
+    private List<Long> insertProducts(int products, List<Long> categoryIds, Random random) {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 1; i <= products; i++) {
+            Long categoryId = categoryIds.get(random.nextInt(categoryIds.size()));
+            BigDecimal price = BigDecimal.valueOf(30 + random.nextInt(171)).setScale(2);
+            batch.add(new Object[] {
+                String.format("%s%06d", PRODUCT_PREFIX, i),
+                "Auto generado para pruebas de carga número " + i + ". Transmisión automática, aire acondicionado y "
+                        + "sistema de entretenimiento con pantalla táctil.",
+                categoryId,
+                price
+            });
+            flushIfFull("INSERT INTO products (name, description, category_id, price) VALUES (?, ?, ?, ?)", batch, i == products);
+        }
+        return jdbc.queryForList("SELECT id FROM products WHERE name LIKE ? ORDER BY id", Long.class, PRODUCT_PREFIX + "%");
+    }
+
+    private void insertImagesAndFeatures(List<Long> productIds, List<Long> featureIds, Random random) {
+        List<Object[]> images = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> features = new ArrayList<>(BATCH_SIZE);
+        int featuresPerProduct = Math.min(FEATURES_PER_PRODUCT, featureIds.size());
+        for (int p = 0; p < productIds.size(); p++) {
+            Long productId = productIds.get(p);
+            boolean last = p == productIds.size() - 1;
+            for (int j = 0; j < IMAGES_PER_PRODUCT; j++) {
+                images.add(new Object[] {productId, j, "https://placehold.co/800x600?text=Flota+" + productId + "-" + j});
+            }
+            flushIfFull("INSERT INTO product_images (product_id, image_order, image) VALUES (?, ?, ?)", images, last);
+
+            List<Long> shuffled = new ArrayList<>(featureIds);
+            Collections.shuffle(shuffled, random);
+            for (int j = 0; j < featuresPerProduct; j++) {
+                features.add(new Object[] {productId, shuffled.get(j)});
+            }
+            flushIfFull("INSERT INTO product_features (product_id, feature_id) VALUES (?, ?)", features, last);
+        }
+    }
+
+    private void insertBookings(int bookings, List<Long> productIds, List<BigDecimal> prices, List<Long> userIds, Random random) {
+        if (productIds.isEmpty() || userIds.isEmpty()) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate windowStart = today.minusDays(PAST_DAYS);
+        int window = PAST_DAYS + FUTURE_DAYS;
+        int perProduct = bookings / productIds.size();
+        int remainder = bookings % productIds.size();
+
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        int written = 0;
+        for (int p = 0; p < productIds.size(); p++) {
+            int count = perProduct + (p < remainder ? 1 : 0);
+            if (count == 0) {
+                continue;
+            }
+            // Cada reserva ocupa una franja propia de la ventana, así nunca se solapan
+            int slot = Math.max(2, window / count);
+            for (int k = 0; k < count; k++) {
+                int length = 1 + random.nextInt(Math.min(7, slot - 1));
+                LocalDate start = windowStart.plusDays((long) k * slot + random.nextInt(slot - length + 1));
+                LocalDate end = start.plusDays(length - 1);
+                String status = status(end.isBefore(today), random);
+                BigDecimal total = prices.get(p).multiply(BigDecimal.valueOf(ChronoUnit.DAYS.between(start, end) + 1));
+                batch.add(new Object[] {
+                    userIds.get(random.nextInt(userIds.size())),
+                    productIds.get(p),
+                    Date.valueOf(start),
+                    Date.valueOf(end),
+                    total,
+                    status,
+                    Date.valueOf(start.minusDays(1 + random.nextInt(30)))
+                });
+                written++;
+                // El ID sale de bookings_seq, la misma secuencia que usa Hibernate para las reservas
+                flushIfFull("INSERT INTO bookings (id, user_id, product_id, start_date, end_date, total_price, booking_status, created_at) "
+                        + "VALUES (nextval('bookings_seq'), ?, ?, ?, ?, ?, ?, ?)", batch, written == bookings);
+            }
+        }
+    }
+
+    private void insertFavorites(int favoritesPerUser, List<Long> userIds, List<Long> productIds, Random random) {
+        int perUser = Math.min(favoritesPerUser, productIds.size());
+        if (perUser <= 0) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int u = 0; u < userIds.size(); u++) {
+            Long userId = userIds.get(u);
+            Set<Long> chosen = new LinkedHashSet<>();
+            while (chosen.size() < perUser) {
+                chosen.add(productIds.get(random.nextInt(productIds.size())));
+            }
+            for (Long productId : chosen) {
+                batch.add(new Object[] {userId, productId});
+            }
+            flushIfFull("INSERT INTO user_favorites (user_id, product_id) VALUES (?, ?)", batch, u == userIds.size() - 1);
+        }
+    }
+
+    // Reservas pasadas: completadas salvo alguna cancelada; futuras: mayormente confirmadas
+    private static String status(boolean past, Random random) {
+        int roll = random.nextInt(100);
+        if (roll < 5) {
+            return "CANCELLED";
+        }
+        if (past) {
+            return "COMPLETED";
+        }
+        return roll < 80 ? "CONFIRMED" : "PENDING";
+    }
+
+    private void flushIfFull(String sql, List<Object[]> batch, boolean last) {
+        if (batch.size() >= BATCH_SIZE || (last && !batch.isEmpty())) {
+            jdbc.batchUpdate(sql, batch);
+            batch.clear();
+        }
+    }
+
+    static String email(int index) {
+        return EMAIL_PREFIX + index + EMAIL_DOMAIN;
+    }
+}
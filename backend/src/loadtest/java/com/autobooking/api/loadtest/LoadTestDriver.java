@@ -0,0 +1,375 @@
+package com.autobooking.api.loadtest;
+
+import com.autobooking.api.AutoBookingApplication;
+import com.autobooking.api.model.User;
+import com.autobooking.api.security.JwtUtil;
+import com.autobooking.api.service.AvailabilityIndex;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Prueba de carga de extremo a extremo dentro del mismo proceso: levanta la aplicación en un
+ * puerto libre (por defecto con el perfil loadtest, H2 en memoria), genera la flota con
+ * FleetDataGenerator y lanza una mezcla de peticiones HTTP a una tasa fija (modelo abierto).
+ *
+ * La latencia de cada petición se mide desde el instante en que debía enviarse según la tasa, no
+ * desde que se envió, para que las esperas por saturación cuenten en los percentiles.
+ *
+ * Opciones (argumentos --clave=valor, además de cualquier propiedad de Spring):
+ * loadtest.products, loadtest.bookings, loadtest.users, loadtest.favorites-per-user,
+ * loadtest.seed, loadtest.generate, loadtest.rps, loadtest.duration, loadtest.warmup,
+ * loadtest.concurrency, loadtest.endpoints (subconjunto de la mezcla, por ejemplo
+ * SEARCH,BOOKING_CREATE), loadtest.report y loadtest.baseline (ruta opcional donde guardar además el
+ * reporte como línea base, por ejemplo loadtest/baseline.md).
+ */
+public final class LoadTestDriver {
+
+    /**
+     * Endpoints de la mezcla con su peso relativo.
+     */
+    enum Endpoint {
+        SEARCH("GET /api/products/search", 40),
+        UNAVAILABLE_DATES("GET /api/products/{id}/unavailable-dates", 25),
+        FAVORITES_LIST("GET /api/users/{id}/favorites", 10),
+        FAVORITE_ADD("POST /api/users/{id}/favorites", 5),
+        FAVORITE_REMOVE("DELETE /api/users/{id}/favorites/{productId}", 5),
+        BOOKING_CREATE("POST /api/bookings", 15);
+
+        final String label;
+        final int weight;
+
+        Endpoint(String label, int weight) {
+            this.label = label;
+            this.weight = weight;
+        }
+    }
+
+    private static final int SAMPLED_USERS = 2000;
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final List<Long> productIds;
+    private final List<Long> userIds;
+    private final List<String> tokens;
+    private final Endpoint[] wheel;
+
+    private LoadTestDriver(HttpClient client, String baseUrl, List<Long> productIds, List<Long> userIds, List<String> tokens,
+                           Set<Endpoint> endpoints) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.productIds = productIds;
+        this.userIds = userIds;
+        this.tokens = tokens;
+        List<Endpoint> entries = new ArrayList<>();
+        for (Endpoint endpoint : endpoints) {
+            for (int i = 0; i < endpoint.weight; i++) {
+                entries.add(endpoint);
+            }
+        }
+        this.wheel = entries.toArray(new Endpoint[0]);
+    }
+
+    public static void main(String[] args) throws Exception {
+        SpringApplication application = new SpringApplication(AutoBookingApplication.class);
+        application.setDefaultProperties(Map.of("server.port", "0"));
+        if (Arrays.stream(args).noneMatch(arg -> arg.startsWith("--spring.profiles.active"))) {
+            application.setAdditionalProfiles("loadtest");
+        }
+
+        try (ConfigurableApplicationContext context = application.run(args)) {
+            Environment env = context.getEnvironment();
+            int products = env.getProperty("loadtest.products", Integer.class, 20_000);
+            int bookings = env.getProperty("loadtest.bookings", Integer.class, 500_000);
+            int users = env.getProperty("loadtest.users", Integer.class, 100_000);
+            int favoritesPerUser = env.getProperty("loadtest.favorites-per-user", Integer.class, 5);
+            long seed = env.getProperty("loadtest.seed", Long.class, 42L);
+            int rps = env.getProperty("loadtest.rps", Integer.class, 200);
+            Duration duration = env.getProperty("loadtest.duration", Duration.class, Duration.ofSeconds(60));
+            Duration warmup = env.getProperty("loadtest.warmup", Duration.class, Duration.ofSeconds(10));
+            int concurrency = env.getProperty("loadtest.concurrency", Integer.class, 64);
+            Set<Endpoint> endpoints = endpoints(env.getProperty("loadtest.endpoints", ""));
+            Path report = Paths.get(env.getProperty("loadtest.report", "target/loadtest/report.md"));
+
+            DataSource dataSource = context.getBean(DataSource.class);
+            if (env.getProperty("loadtest.generate", Boolean.class, true)) {
+                if (new FleetDataGenerator(dataSource, seed).generate(products, bookings, users, favoritesPerUser)) {
+                    // El índice se construyó al arrancar, antes de generar las reservas
+                    context.getBean(AvailabilityIndex.class).rebuild();
+                }
+            }
+
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            List<Long> productIds = jdbc.queryForList("SELECT id FROM products ORDER BY id", Long.class);
+            List<Long> userIds = new ArrayList<>();
+            List<String> tokens = new ArrayList<>();
+            JwtUtil jwtUtil = context.getBean(JwtUtil.class);
+            jdbc.query("SELECT id, email FROM users WHERE email LIKE ? ORDER BY id",
+                    rs -> {
+                        if (userIds.size() < SAMPLED_USERS) {
+                            User user = new User();
+                            user.setId(rs.getLong("id"));
+                            user.setEmail(rs.getString("email"));
+                            user.setIsAdmin(false);
+                            userIds.add(user.getId());
+                            // Tokens emitidos directamente, para no medir el costo de BCrypt del login
+                            tokens.add(jwtUtil.generateToken(user));
+                        }
+                    },
+                    FleetDataGenerator.EMAIL_PREFIX + "%");
+            if (productIds.isEmpty() || userIds.isEmpty()) {
+                throw new IllegalStateException("No hay productos o usuarios generados para la prueba de carga");
+            }
+
+            int port = env.getRequiredProperty("local.server.port", Integer.class);
+            ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+            try {
+                HttpClient client = HttpClient.newBuilder()
+                        .executor(executor)
+                        .connectTimeout(Duration.ofSeconds(5))
+                        .build();
+                LoadTestDriver driver = new LoadTestDriver(client, "http://localhost:" + port, productIds, userIds, tokens,
+                        endpoints);
+
+                driver.run(rps, warmup, concurrency, new Random(seed), null);
+                Map<Endpoint, LatencyRecorder> results = new EnumMap<>(Endpoint.class);
+                for (Endpoint endpoint : endpoints) {
+                    results.put(endpoint, new LatencyRecorder());
+                }
+                long started = System.nanoTime();
+                driver.run(rps, duration, concurrency, new Random(seed + 1), results);
+                double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+                String text = report(results, elapsedSeconds, rps, duration, concurrency,
+                        products, bookings, users, favoritesPerUser, seed, env);
+                writeReport(report, text);
+                System.out.println(text);
+                System.out.println("Reporte guardado en " + report.toAbsolutePath());
+                String baseline = env.getProperty("loadtest.baseline");
+                if (baseline != null && !baseline.isBlank()) {
+                    writeReport(Paths.get(baseline), text);
+                    System.out.println("Línea base guardada en " + Paths.get(baseline).toAbsolutePath());
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Envía peticiones a la tasa indicada durante el tiempo indicado y espera las pendientes.
+     *
+     * @param results Registro por endpoint, o null para solo calentar
+     */
+    private void run(int rps, Duration duration, int concurrency, Random random, Map<Endpoint, LatencyRecorder> results)
+            throws InterruptedException {
+        Semaphore inFlight = new Semaphore(concurrency);
+        long interval = TimeUnit.SECONDS.toNanos(1) / rps;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        for (long i = 0; ; i++) {
+            long intended = start + i * interval;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Endpoint endpoint = wheel[random.nextInt(wheel.length)];
+            HttpRequest request = request(endpoint, random);
+            inFlight.acquire();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        inFlight.release();
+                        if (results != null) {
+                            long latency = System.nanoTime() - intended;
+                            results.get(endpoint).record(latency, error == null ? response.statusCode() : -1);
+                        }
+                    });
+        }
+        // Esperar a que terminen las peticiones en curso
+        inFlight.acquire(concurrency);
+        inFlight.release(concurrency);
+    }
+
+    private HttpRequest request(Endpoint endpoint, Random random) {
+        int user = random.nextInt(userIds.size());
+        Long userId = userIds.get(user);
+        String token = "Bearer " + tokens.get(user);
+        Long productId = productIds.get(random.nextInt(productIds.size()));
+        LocalDate start = LocalDate.now().plusDays(1 + random.nextInt(365));
+        LocalDate end = start.plusDays(random.nextInt(7));
+
+        switch (endpoint) {
+            case SEARCH: {
+                String query = "startDate=" + start + "&endDate=" + end;
+                if (random.nextBoolean()) {
+                    query += "&categoryId=" + (1 + random.nextInt(6));
+                }
+                return get("/api/products/search?" + query, null);
+            }
+            case UNAVAILABLE_DATES:
+                return get("/api/products/" + productId + "/unavailable-dates", null);
+            case FAVORITES_LIST:
+                return get("/api/users/" + userId + "/favorites?limit=50", token);
+            case FAVORITE_ADD:
+                return json("POST", "/api/users/" + userId + "/favorites", "{\"productId\":" + productId + "}", token);
+            case FAVORITE_REMOVE:
+                return builder("/api/users/" + userId + "/favorites/" + productId, token).DELETE().build();
+            case BOOKING_CREATE:
+                return json("POST", "/api/bookings", "{\"productId\":" + productId + ",\"userId\":" + userId
+                        + ",\"startDate\":\"" + start + "\",\"endDate\":\"" + end + "\"}", token);
+            default:
+                throw new IllegalArgumentException(endpoint.name());
+        }
+    }
+
+    private HttpRequest get(String path, String token) {
+        return builder(path, token).GET().build();
+    }
+
+    private HttpRequest json(String method, String path, String body, String token) {
+        return builder(path, token)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest.Builder builder(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            builder.header("Authorization", token);
+        }
+        return builder;
+    }
+
+    private static String report(Map<Endpoint, LatencyRecorder> results, double elapsedSeconds, int rps, Duration duration,
+                                 int concurrency, int products, int bookings, int users, int favoritesPerUser, long seed,
+                                 Environment env) {
+        StringBuilder out = new StringBuilder();
+        out.append("# Prueba de carga AutoBooking\n\n");
+        out.append("- Fecha: ").append(LocalDateTime.now().withNano(0)).append('\n');
+        out.append("- Base de datos: ").append(env.getProperty("spring.datasource.url")).append('\n');
+        out.append("- JVM: ").append(System.getProperty("java.vm.name")).append(' ').append(System.getProperty("java.version"))
+                .append(", ").append(Runtime.getRuntime().availableProcessors()).append(" CPU\n");
+        out.append("- Datos: ").append(products).append(" productos, ").append(bookings).append(" reservas, ")
+                .append(users).append(" usuarios, ").append(favoritesPerUser).append(" favoritos por usuario (semilla ")
+                .append(seed).append(")\n");
+        long total = results.values().stream().mapToLong(LatencyRecorder::count).sum();
+        boolean virtualThreads = env.getProperty("spring.threads.virtual.enabled", Boolean.class, false)
+                && Runtime.version().feature() >= 21;
+        out.append("- Hilos de Tomcat: ").append(virtualThreads ? "virtuales" : "de plataforma").append('\n');
+        out.append("- Carga: ").append(rps).append(" rps objetivo durante ").append(duration.toSeconds())
+                .append(" s, concurrencia máxima ").append(concurrency).append("; ")
+                .append(String.format("%.1f", total / elapsedSeconds)).append(" rps logrados\n\n");
+        out.append("| Endpoint | Peticiones | 2xx/3xx | 4xx | Errores | Tasa de error | p50 (ms) | p99 (ms) | Máx (ms) |\n");
+        out.append("|----------|-----------:|--------:|----:|--------:|--------------:|---------:|---------:|---------:|\n");
+        for (Map.Entry<Endpoint, LatencyRecorder> entry : results.entrySet()) {
+            LatencyRecorder recorder = entry.getValue();
+            out.append(String.format("| %s | %d | %d | %d | %d | %.2f%% | %.1f | %.1f | %.1f |%n",
+                    entry.getKey().label, recorder.count(), recorder.ok(), recorder.clientErrors(), recorder.errors(),
+                    recorder.count() == 0 ? 0.0 : 100.0 * recorder.errors() / recorder.count(),
+                    recorder.percentileMillis(50), recorder.percentileMillis(99), recorder.percentileMillis(100)));
+        }
+        out.append("\nErrores: respuestas 5xx, timeouts y fallos de conexión. Las respuestas 4xx (por ejemplo, ")
+                .append("reservas rechazadas por solapamiento) se cuentan aparte.\n");
+        return out.toString();
+    }
+
+    // Lista separada por comas de nombres de Endpoint (por ejemplo SEARCH,BOOKING_CREATE); vacía para todos
+    private static Set<Endpoint> endpoints(String names) {
+        Set<Endpoint> endpoints = EnumSet.noneOf(Endpoint.class);
+        for (String name : names.split(",")) {
+            if (!name.isBlank()) {
+                endpoints.add(Endpoint.valueOf(name.trim().toUpperCase()));
+            }
+        }
+        return endpoints.isEmpty() ? EnumSet.allOf(Endpoint.class) : endpoints;
+    }
+
+    private static void writeReport(Path path, String text) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        Files.writeString(path, text);
+    }
+
+    /**
+     * Latencias y códigos de estado de un endpoint.
+     */
+    static final class LatencyRecorder {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private long ok;
+        private long clientErrors;
+        private long errors;
+
+        synchronized void record(long latencyNanos, int status) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+            if (status >= 200 && status < 400) {
+                ok++;
+            } else if (status >= 400 && status < 500) {
+                clientErrors++;
+            } else {
+                errors++;
+            }
+        }
+
+        synchronized long count() {
+            return count;
+        }
+
+        synchronized long ok() {
+            return ok;
+        }
+
+        synchronized long clientErrors() {
+            return clientErrors;
+        }
+
+        synchronized long errors() {
+            return errors;
+        }
+
+        synchronized double percentileMillis(double percentile) {
+            if (count == 0) {
+                return 0.0;
+            }
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+            return sorted[Math.max(0, Math.min(index, count - 1))] / 1e6;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.autobooking.api.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
@@ -9,9 +11,15 @@ import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 
 import javax.sql.DataSource;
 
+/**
+ * El esquema y los datos de ejemplo los aplica Flyway una sola vez (db/migration). Con
+ * --init-db se borran los datos de ejemplo y se vuelven a cargar sobre una base existente.
+ */
 @Configuration
 public class DataInitializer {
 
+    private static final Logger logger = LoggerFactory.getLogger(DataInitializer.class);
+
     @Autowired
     private DataSource dataSource;
 
@@ -20,11 +28,14 @@ public class DataInitializer {
         return args -> {
             // Esto solo ejecutará el script si se pasa el argumento --init-db
             if (args.length > 0 && args[0].equals("--init-db")) {
-                System.out.println("Inicializando base de datos con datos de ejemplo...");
-                ResourceDatabasePopulator resourceDatabasePopulator = new ResourceDatabasePopulator(false, false, "UTF-8", new ClassPathResource("data.sql"));
+                logger.info("Inicializando base de datos con datos de ejemplo...");
+                ResourceDatabasePopulator resourceDatabasePopulator = new ResourceDatabasePopulator(false, false, "UTF-8",
+                        new ClassPathResource("db/reset-data.sql"),
+                        new ClassPathResource("db/migration/V2__datos_iniciales.sql"),
+                        new ClassPathResource("db/reset-image-order.sql"));
                 resourceDatabasePopulator.execute(dataSource);
-                System.out.println("Base de datos inicializada con éxito.");
+                logger.info("Base de datos inicializada con éxito.");
             }
         };
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,49 @@
+package com.autobooking.api.config;
+
+import com.autobooking.api.service.ImageStore;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.IOException;
+
+/**
+ * Escribe las imágenes del almacén (guardadas como /api/images/{hash}) con su URL absoluta, según
+ * ImageStore.publicBaseUrl(). Se aplica con @JsonSerialize a Product.images y a la miniatura de
+ * ProductSummary; el ObjectMapper de Spring lo crea con ImageStore inyectado.
+ *
+ * Fuera de la petición (p. ej. al escribir una respuesta en streaming desde otro hilo) la base se
+ * toma del atributo BASE_URL_ATTRIBUTE del ObjectWriter. Sin ImageStore, sin base o con
+ * URLs externas, el valor se escribe sin cambios.
+ */
+public class ImageUrlSerializer extends StdSerializer<String> {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String BASE_URL_ATTRIBUTE = "autobooking.imageBaseUrl";
+
+    private final transient ImageStore imageStore;
+
+    // ObjectMapper creados fuera de Spring
+    public ImageUrlSerializer() {
+        this(null);
+    }
+
+    @Autowired
+    public ImageUrlSerializer(ImageStore imageStore) {
+        super(String.class);
+        this.imageStore = imageStore;
+    }
+
+    @Override
+    public void serialize(String image, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        if (imageStore == null) {
+            generator.writeString(image);
+            return;
+        }
+        Object baseUrl = provider.getAttribute(BASE_URL_ATTRIBUTE);
+        generator.writeString(imageStore.publicUrlOf(image,
+                baseUrl instanceof String value ? value : imageStore.publicBaseUrl()));
+    }
+}
@@ -0,0 +1,89 @@
+package com.autobooking.api.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Detecta con JFR los hilos virtuales que quedan fijados a su hilo portador (evento
+ * jdk.VirtualThreadPinned), por ejemplo al bloquearse dentro de un bloque synchronized del
+ * driver JDBC. Cada caso se cuenta en autobooking.virtual.pinned y su duración en
+ * autobooking.virtual.pinned.duration; la primera vez que aparece un mismo punto de código se
+ * registra un aviso con la pila.
+ */
+public class PinnedThreadMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PinnedThreadMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 12;
+    private static final int MAX_REPORTED_SITES = 100;
+
+    private final Duration threshold;
+    private final Counter pinnedCounter;
+    private final Timer pinnedTimer;
+    private final Map<String, Boolean> reportedSites = new ConcurrentHashMap<>();
+    private RecordingStream stream;
+
+    public PinnedThreadMonitor(MeterRegistry meterRegistry, Duration threshold) {
+        this.threshold = threshold;
+        this.pinnedCounter = Counter.builder("autobooking.virtual.pinned")
+                .description("Hilos virtuales fijados a su hilo portador por encima del umbral")
+                .register(meterRegistry);
+        this.pinnedTimer = Timer.builder("autobooking.virtual.pinned.duration")
+                .description("Duración de los bloqueos con el hilo virtual fijado")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        logger.info("virtual.pinned.monitor started threshold={}ms", threshold.toMillis());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCounter.increment();
+        pinnedTimer.record(event.getDuration());
+
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null) {
+            return;
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        StringBuilder trace = new StringBuilder();
+        for (int i = 0; i < Math.min(LOGGED_FRAMES, frames.size()); i++) {
+            RecordedFrame frame = frames.get(i);
+            trace.append("\n\tat ").append(frame.getMethod().getType().getName())
+                    .append('.').append(frame.getMethod().getName())
+                    .append(':').append(frame.getLineNumber());
+        }
+        // Un aviso por punto de código, para no llenar el log con el mismo caso
+        String site = trace.toString();
+        if (reportedSites.size() < MAX_REPORTED_SITES && reportedSites.putIfAbsent(site, Boolean.TRUE) == null) {
+            logger.warn("virtual.pinned durationMs={} thread={}{}", event.getDuration().toMillis(),
+                    event.getThread() == null ? "?" : event.getThread().getJavaName(), site);
+        }
+    }
+}
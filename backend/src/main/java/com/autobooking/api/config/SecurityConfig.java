@@ -43,9 +43,14 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.GET, "/api/products/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/categories/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/features/**").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/images/**").permitAll()
+                // Salud para el balanceador; las métricas solo con un token de administrador
+                .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
+                .requestMatchers("/actuator/prometheus").hasRole("ADMIN")
                 // Rutas protegidas por rol de administrador
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.POST, "/api/products").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/products/import").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.PUT, "/api/products/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.DELETE, "/api/products/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.POST, "/api/categories").hasRole("ADMIN")
@@ -54,6 +59,7 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.POST, "/api/features").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.PUT, "/api/features/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.DELETE, "/api/features/**").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/images").hasRole("ADMIN")
                 // Otras rutas requieren autenticación
                 .anyRequest().authenticated()
             )
@@ -0,0 +1,35 @@
+package com.autobooking.api.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Registra el tiempo de arranque al quedar lista la aplicación, para comparar entre versiones
+ * o configuraciones:
+ * <ul>
+ *   <li>contextMs: desde que arranca SpringApplication hasta que está lista (el mismo valor que
+ *       la métrica application.ready.time de Actuator).</li>
+ *   <li>jvmMs: desde que arrancó la JVM hasta que terminan los demás listeners de
+ *       ApplicationReadyEvent (por ejemplo, la carga del índice de disponibilidad).</li>
+ * </ul>
+ */
+@Component
+public class StartupTimeLogger {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupTimeLogger.class);
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void logStartupTime(ApplicationReadyEvent event) {
+        long contextMs = event.getTimeTaken() == null ? -1 : event.getTimeTaken().toMillis();
+        long jvmMs = ManagementFactory.getRuntimeMXBean().getUptime();
+        logger.info("startup.ready contextMs={} jvmMs={}", contextMs, jvmMs);
+    }
+}
@@ -0,0 +1,58 @@
+package com.autobooking.api.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registra en autobooking.http.statements el número de sentencias SQL de Hibernate de cada
+ * petición, por método y patrón de la ruta (por ejemplo /api/products/{id}), para detectar
+ * endpoints con consultas N+1.
+ *
+ * Solo se cuentan las sentencias del hilo de la petición; las de respuestas escritas en segundo
+ * plano (como /api/products/stream) no se incluyen.
+ */
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    // Un DistributionSummary por método y patrón de ruta, registrado una sola vez
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public StatementCountFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long before = StatementCountInspector.current();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String method = request.getMethod();
+            String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+            summaries.computeIfAbsent(method + " " + uri, key -> DistributionSummary.builder("autobooking.http.statements")
+                            .description("Sentencias SQL de Hibernate por petición")
+                            .baseUnit("statements")
+                            .tag("method", method)
+                            .tag("uri", uri)
+                            .register(meterRegistry))
+                    .record(StatementCountInspector.current() - before);
+        }
+    }
+}
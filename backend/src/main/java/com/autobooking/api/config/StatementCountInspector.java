@@ -0,0 +1,30 @@
+package com.autobooking.api.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Cuenta las sentencias SQL que Hibernate prepara en cada hilo. No modifica el SQL; solo lo
+ * cuenta para que StatementCountFilter registre cuántas sentencias generó cada petición.
+ *
+ * Las consultas hechas directamente con JdbcTemplate no pasan por Hibernate y no se cuentan.
+ */
+public class StatementCountInspector implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * Sentencias preparadas hasta ahora en el hilo actual. El contador no se reinicia: quien
+     * mide guarda el valor al empezar y calcula la diferencia al terminar.
+     */
+    public static long current() {
+        return COUNT.get()[0];
+    }
+}
@@ -0,0 +1,69 @@
+package com.autobooking.api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Ajustes del modo de hilos virtuales (Java 21 con spring.threads.virtual.enabled=true). En Java
+ * 17, o con la propiedad desactivada, nada de esto se carga y Tomcat usa su pool de hilos.
+ *
+ * - El DataSource se envuelve en ConnectionLimitingDataSource, con tantos permisos como
+ *   conexiones tenga el pool (app.db.max-concurrency para otro valor).
+ * - PinnedThreadMonitor informa de los hilos virtuales fijados a su portador
+ *   (app.virtual-threads.pinned-threshold, 20 ms por defecto).
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource hikari)) {
+                    return bean;
+                }
+                int maxConcurrency = environment.getProperty("app.db.max-concurrency", Integer.class, hikari.getMaximumPoolSize());
+                long acquireTimeout = environment.getProperty("app.db.acquire-timeout", Long.class, hikari.getConnectionTimeout());
+                logger.info("db.limiter enabled maxConcurrency={} acquireTimeoutMs={}", maxConcurrency, acquireTimeout);
+                return new ConnectionLimitingDataSource(hikari, maxConcurrency, acquireTimeout);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder connectionLimiterMetrics(DataSource dataSource) {
+        return meterRegistry -> {
+            if (dataSource instanceof ConnectionLimitingDataSource limiter) {
+                Gauge.builder("autobooking.db.limiter.waiting", limiter, ConnectionLimitingDataSource::getQueueLength)
+                        .description("Hilos esperando permiso para obtener una conexión")
+                        .register(meterRegistry);
+                Gauge.builder("autobooking.db.limiter.available", limiter, ConnectionLimitingDataSource::getAvailablePermits)
+                        .description("Permisos de conexión libres")
+                        .register(meterRegistry);
+            }
+        };
+    }
+
+    @Bean
+    public PinnedThreadMonitor pinnedThreadMonitor(MeterRegistry meterRegistry, Environment environment) {
+        Duration threshold = environment.getProperty("app.virtual-threads.pinned-threshold", Duration.class, Duration.ofMillis(20));
+        return new PinnedThreadMonitor(meterRegistry, threshold);
+    }
+}
@@ -1,41 +1,67 @@
 package com.autobooking.api.controller;
 
+import com.autobooking.api.dto.BookingExportRow;
+import com.autobooking.api.dto.BookingItem;
 import com.autobooking.api.model.Booking;
 import com.autobooking.api.model.Product;
 import com.autobooking.api.model.User;
 import com.autobooking.api.repository.ProductRepository;
 import com.autobooking.api.service.BookingService;
 import com.autobooking.api.service.UserService;
+import com.autobooking.api.util.CsvWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/bookings")
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"})
 public class BookingController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    // Filas escritas entre cada envío parcial de la exportación (igual al tamaño de bloque del cursor)
+    private static final int EXPORT_FLUSH_ROWS = 500;
+
     private final BookingService bookingService;
     private final UserService userService;
     private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper;
 
     @Autowired
     public BookingController(
             BookingService bookingService,
             UserService userService,
-            ProductRepository productRepository) {
+            ProductRepository productRepository,
+            ObjectMapper objectMapper) {
         this.bookingService = bookingService;
         this.userService = userService;
         this.productRepository = productRepository;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -128,14 +154,213 @@ public class BookingController {
     }
     
     /**
-     * Endpoint para obtener las reservas de un usuario
+     * Endpoint para crear varias reservas de un mismo usuario en una sola operación (por ejemplo,
+     * varios autos para un grupo). Se crean todas o ninguna.
+     * 
+     * Cuerpo: {"userId": 1, "items": [{"productId": 2, "startDate": "2025-07-01", "endDate": "2025-07-05"}, ...]}
+     * 
+     * @param batchRequest Usuario y reservas del lote (máximo 50)
+     * @return IDs de las reservas creadas y precio total del lote
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> createBookings(@RequestBody Map<String, Object> batchRequest) {
+        try {
+            Object userIdValue = batchRequest.get("userId");
+            if (userIdValue == null || !(batchRequest.get("items") instanceof List<?> rawItems)) {
+                throw new IllegalArgumentException("Debe indicar userId y la lista items");
+            }
+            Long userId = Long.valueOf(userIdValue.toString());
+            
+            List<BookingItem> items = new ArrayList<>(rawItems.size());
+            for (Object rawItem : rawItems) {
+                if (!(rawItem instanceof Map<?, ?> item)
+                        || item.get("productId") == null || item.get("startDate") == null || item.get("endDate") == null) {
+                    throw new IllegalArgumentException("Cada reserva debe indicar productId, startDate y endDate");
+                }
+                items.add(new BookingItem(
+                        Long.valueOf(item.get("productId").toString()),
+                        LocalDate.parse(item.get("startDate").toString()),
+                        LocalDate.parse(item.get("endDate").toString())));
+            }
+            
+            List<Booking> bookings = bookingService.createBookings(userId, items);
+            
+            List<Long> bookingIds = new ArrayList<>(bookings.size());
+            BigDecimal totalPrice = BigDecimal.ZERO;
+            for (Booking booking : bookings) {
+                bookingIds.add(booking.getId());
+                totalPrice = totalPrice.add(booking.getTotalPrice());
+            }
+            Map<String, Object> response = new HashMap<>();
+            response.put("bookingIds", bookingIds);
+            response.put("count", bookingIds.size());
+            response.put("totalPrice", totalPrice);
+            response.put("message", "Reservas realizadas con éxito");
+            
+            return new ResponseEntity<>(response, HttpStatus.CREATED);
+            
+        } catch (NoSuchElementException e) {
+            // Error si el usuario o algún producto no existe
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+        } catch (IllegalStateException e) {
+            // Error si alguna reserva se solapa con otra existente
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        } catch (DateTimeParseException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Formato de fecha inválido. Use YYYY-MM-DD");
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        } catch (IllegalArgumentException e) {
+            // Incluye IDs con formato inválido (NumberFormatException)
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Error al crear las reservas: " + e.getMessage());
+            return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+    
+    /**
+     * Endpoint para listar todas las reservas (solo administradores), paginado por cursor
+     * 
+     * @param after ID de la última reserva de la página anterior
+     * @param limit Tamaño de página (máximo 200)
+     * @return Página {items, nextCursor, hasMore}
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getAllBookings(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return new ResponseEntity<>(bookingService.getBookingsPage(after, limit), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Error al obtener reservas: " + e.getMessage());
+            return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+    
+    /**
+     * Endpoint para exportar reservas (solo administradores) en CSV o NDJSON. Las filas se escriben
+     * a medida que se leen de la base de datos, por lo que la memoria usada no depende de la
+     * cantidad de reservas exportadas.
+     * 
+     * @param format csv (por defecto) o ndjson
+     * @param from Solo reservas que terminan este día o después (YYYY-MM-DD)
+     * @param to Solo reservas que empiezan este día o antes (YYYY-MM-DD)
+     * @param status Estados a incluir, separados por comas (por defecto todos)
+     * @return Archivo con una fila por reserva, en orden de ID
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> exportBookings(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) List<String> status) {
+        // Los parámetros se validan antes de empezar a escribir: después ya no se puede responder 400
+        LocalDate fromDate;
+        LocalDate toDate;
+        Set<Booking.BookingStatus> statuses;
+        try {
+            fromDate = from == null ? null : LocalDate.parse(from);
+            toDate = to == null ? null : LocalDate.parse(to);
+            statuses = parseStatuses(status);
+        } catch (DateTimeParseException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Formato de fecha inválido. Use YYYY-MM-DD");
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        }
+        if (fromDate != null && toDate != null && fromDate.isAfter(toDate)) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "La fecha desde debe ser anterior a la fecha hasta");
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        }
+
+        StreamingResponseBody body;
+        MediaType contentType;
+        if ("csv".equalsIgnoreCase(format)) {
+            contentType = new MediaType("text", "csv", StandardCharsets.UTF_8);
+            body = out -> {
+                BufferedWriter buffered = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                CsvWriter csv = new CsvWriter(buffered);
+                csv.writeRow((Object[]) BookingExportRow.CSV_HEADER);
+                int[] pending = {0};
+                bookingService.forEachExportRow(fromDate, toDate, statuses, row -> {
+                    try {
+                        csv.writeRow(row.toCsvValues());
+                        if (++pending[0] == EXPORT_FLUSH_ROWS) {
+                            csv.flush();
+                            pending[0] = 0;
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                csv.flush();
+            };
+        } else if ("ndjson".equalsIgnoreCase(format)) {
+            contentType = MediaType.parseMediaType(NDJSON);
+            body = out -> {
+                ObjectWriter writer = objectMapper.writer();
+                int[] pending = {0};
+                bookingService.forEachExportRow(fromDate, toDate, statuses, row -> {
+                    try {
+                        out.write(writer.writeValueAsBytes(row));
+                        out.write('\n');
+                        if (++pending[0] == EXPORT_FLUSH_ROWS) {
+                            out.flush();
+                            pending[0] = 0;
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                out.flush();
+            };
+        } else {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Formato no soportado: " + format + ". Use csv o ndjson");
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        }
+
+        String filename = "reservas." + format.toLowerCase();
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+    
+    /**
+     * Endpoint para obtener las reservas de un usuario. Con after o limit la respuesta es una
+     * página por cursor; sin ellos, la lista completa.
      * 
      * @param userId ID del usuario
+     * @param after ID de la última reserva de la página anterior
+     * @param limit Tamaño de página (máximo 200)
      * @return Lista de reservas del usuario
      */
     @GetMapping("/user/{userId}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<?> getUserBookings(@PathVariable Long userId) {
+    public ResponseEntity<?> getUserBookings(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
         try {
             // Validar que el usuario existe
             try {
@@ -147,11 +372,18 @@ public class BookingController {
                 throw e;
             }
             
-            return new ResponseEntity<>(bookingService.getBookingsByUser(userId), HttpStatus.OK);
+            if (after == null && limit == null) {
+                return new ResponseEntity<>(bookingService.getBookingsByUser(userId), HttpStatus.OK);
+            }
+            return new ResponseEntity<>(bookingService.getBookingsByUserPage(userId, after, limit), HttpStatus.OK);
         } catch (NoSuchElementException e) {
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", e.getMessage());
             return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", "Error al obtener reservas: " + e.getMessage());
@@ -213,4 +445,25 @@ public class BookingController {
             return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
-} 
\ No newline at end of file
+
+    // Estados separados por comas (status=CONFIRMED,COMPLETED o status=CONFIRMED&status=COMPLETED)
+    private static Set<Booking.BookingStatus> parseStatuses(List<String> values) {
+        Set<Booking.BookingStatus> statuses = EnumSet.noneOf(Booking.BookingStatus.class);
+        if (values == null) {
+            return statuses;
+        }
+        for (String value : values) {
+            for (String name : value.split(",")) {
+                if (name.isBlank()) {
+                    continue;
+                }
+                try {
+                    statuses.add(Booking.BookingStatus.valueOf(name.trim().toUpperCase()));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Estado de reserva inválido: " + name.trim());
+                }
+            }
+        }
+        return statuses;
+    }
+}
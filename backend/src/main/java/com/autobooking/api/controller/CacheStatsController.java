@@ -0,0 +1,72 @@
+package com.autobooking.api.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Estadísticas de la caché de segundo nivel y de la caché de consultas de Hibernate.
+ * Solo para administradores (/api/admin/**).
+ */
+@RestController
+@RequestMapping("/api/admin/cache")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"})
+public class CacheStatsController {
+
+    private final Statistics statistics;
+
+    @Autowired
+    public CacheStatsController(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<?> getStats() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        response.put("secondLevel", counters(statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount()));
+        response.put("queryCache", counters(statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount()));
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics != null) {
+                Map<String, Object> counters = counters(regionStatistics.getHitCount(),
+                        regionStatistics.getMissCount(), regionStatistics.getPutCount());
+                counters.put("elementsInMemory", regionStatistics.getElementCountInMemory());
+                regions.put(region, counters);
+            }
+        }
+        response.put("regions", regions);
+        response.put("since", statistics.getStart());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Reinicia los contadores (no vacía la caché).
+     */
+    @DeleteMapping("/stats")
+    public ResponseEntity<?> resetStats() {
+        statistics.clear();
+        return ResponseEntity.noContent().build();
+    }
+
+    private static Map<String, Object> counters(long hits, long misses, long puts) {
+        Map<String, Object> counters = new LinkedHashMap<>();
+        counters.put("hits", hits);
+        counters.put("misses", misses);
+        counters.put("puts", puts);
+        long lookups = hits + misses;
+        counters.put("hitRatio", lookups == 0 ? 0.0 : (double) hits / lookups);
+        return counters;
+    }
+}
@@ -1,11 +1,14 @@
 package com.autobooking.api.controller;
 
 import com.autobooking.api.model.Category;
+import com.autobooking.api.service.CatalogVersion;
 import com.autobooking.api.service.CategoryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.HashMap;
@@ -18,10 +21,12 @@ import java.util.Map;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final CatalogVersion catalogVersion;
 
     @Autowired
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService, CatalogVersion catalogVersion) {
         this.categoryService = categoryService;
+        this.catalogVersion = catalogVersion;
     }
 
     @PostMapping
@@ -42,9 +47,13 @@ public class CategoryController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Category>> listCategories() {
+    public ResponseEntity<List<Category>> listCategories(WebRequest webRequest) {
+        // Si el catálogo no cambió desde el ETag del cliente se responde 304 sin consultar la base de datos
+        if (webRequest.checkNotModified(catalogVersion.catalogETag())) {
+            return null;
+        }
         List<Category> categories = categoryService.listCategories();
-        return new ResponseEntity<>(categories, HttpStatus.OK);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(categories);
     }
 
     @DeleteMapping("/{id}")
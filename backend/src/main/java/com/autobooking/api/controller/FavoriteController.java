@@ -1,52 +1,69 @@
 package com.autobooking.api.controller;
 
 import com.autobooking.api.model.Product;
+import com.autobooking.api.security.AuthenticatedUser;
 import com.autobooking.api.security.JwtUtil;
-import com.autobooking.api.service.UserService;
+import com.autobooking.api.service.FavoriteService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 @RestController
 @RequestMapping("/api/users/{userId}/favorites")
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"})
 public class FavoriteController {
 
-    private final UserService userService;
+    private final FavoriteService favoriteService;
     private final JwtUtil jwtUtil;
 
     @Autowired
-    public FavoriteController(UserService userService, JwtUtil jwtUtil) {
-        this.userService = userService;
+    public FavoriteController(FavoriteService favoriteService, JwtUtil jwtUtil) {
+        this.favoriteService = favoriteService;
         this.jwtUtil = jwtUtil;
     }
 
     /**
-     * Obtiene los productos favoritos de un usuario.
+     * Obtiene los productos favoritos de un usuario. Con after o limit la respuesta es una
+     * página por cursor ({items, nextCursor, hasMore}); sin ellos, la lista completa.
      * 
      * @param userId ID del usuario
+     * @param after ID del último producto de la página anterior
+     * @param limit Tamaño de página (máximo 200)
      * @param request HTTP request para verificación de token
      * @return Lista de productos favoritos del usuario
      */
     @GetMapping
-    public ResponseEntity<?> getUserFavorites(@PathVariable Long userId, HttpServletRequest request) {
+    public ResponseEntity<?> getUserFavorites(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            HttpServletRequest request) {
         try {
             // Validar que el usuario autenticado es el mismo que solicita sus favoritos
             validateUserAccess(request, userId);
             
-            Set<Product> favorites = userService.getFavorites(userId);
+            if (after != null || limit != null) {
+                return ResponseEntity.ok(favoriteService.getFavoritesPage(userId, after, limit));
+            }
+            List<Product> favorites = favoriteService.getFavorites(userId);
             return ResponseEntity.ok(favorites);
         } catch (ResponseStatusException e) {
             Map<String, String> response = new HashMap<>();
             response.put("error", e.getReason());
             return new ResponseEntity<>(response, e.getStatusCode());
+        } catch (IllegalArgumentException e) {
+            Map<String, String> response = new HashMap<>();
+            response.put("error", e.getMessage());
+            return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             Map<String, String> response = new HashMap<>();
             response.put("error", "Error al obtener favoritos: " + e.getMessage());
@@ -60,7 +77,7 @@ public class FavoriteController {
      * @param userId ID del usuario
      * @param requestBody Contiene el ID del producto a añadir
      * @param request HTTP request para verificación de token
-     * @return Producto añadido a favoritos
+     * @return {productId, isFavorite: true}
      */
     @PostMapping
     public ResponseEntity<?> addFavorite(
@@ -79,9 +96,12 @@ public class FavoriteController {
             }
             
             // Añadir a favoritos
-            Product product = userService.addFavorite(userId, productId);
+            favoriteService.addFavorite(userId, productId);
             
-            return new ResponseEntity<>(product, HttpStatus.CREATED);
+            Map<String, Object> response = new HashMap<>();
+            response.put("productId", productId);
+            response.put("isFavorite", true);
+            return new ResponseEntity<>(response, HttpStatus.CREATED);
         } catch (ResponseStatusException e) {
             Map<String, String> response = new HashMap<>();
             response.put("error", e.getReason());
@@ -112,7 +132,7 @@ public class FavoriteController {
             validateUserAccess(request, userId);
             
             // Eliminar de favoritos
-            userService.removeFavorite(userId, productId);
+            favoriteService.removeFavorite(userId, productId);
             
             return ResponseEntity.noContent().build();
         } catch (ResponseStatusException e) {
@@ -126,6 +146,71 @@ public class FavoriteController {
         }
     }
 
+    /**
+     * Indica cuáles de varios productos están en los favoritos de un usuario, para marcar una
+     * página de resultados con una sola petición en lugar de una por tarjeta.
+     * 
+     * @param userId ID del usuario
+     * @param productIds IDs de los productos, separados por comas (máximo 200)
+     * @param request HTTP request para verificación de token
+     * @return {favorites: {productId: true|false, ...}}
+     */
+    @GetMapping("/lookup")
+    public ResponseEntity<?> lookupFavorites(
+            @PathVariable Long userId,
+            @RequestParam List<Long> productIds,
+            HttpServletRequest request) {
+        
+        try {
+            // Validar que el usuario autenticado es el mismo que consulta sus favoritos
+            validateUserAccess(request, userId);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("favorites", favoriteService.lookupFavorites(userId, productIds));
+            return ResponseEntity.ok(response);
+        } catch (ResponseStatusException e) {
+            Map<String, String> response = new HashMap<>();
+            response.put("error", e.getReason());
+            return new ResponseEntity<>(response, e.getStatusCode());
+        } catch (IllegalArgumentException e) {
+            Map<String, String> response = new HashMap<>();
+            response.put("error", e.getMessage());
+            return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            Map<String, String> response = new HashMap<>();
+            response.put("error", "Error al verificar favoritos: " + e.getMessage());
+            return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Cantidad de favoritos de un usuario.
+     * 
+     * @param userId ID del usuario
+     * @param request HTTP request para verificación de token
+     * @return {count}
+     */
+    @GetMapping("/count")
+    public ResponseEntity<?> countFavorites(
+            @PathVariable Long userId,
+            HttpServletRequest request) {
+        
+        try {
+            // Validar que el usuario autenticado es el mismo que consulta sus favoritos
+            validateUserAccess(request, userId);
+            
+            return ResponseEntity.ok(Map.of("count", favoriteService.countFavorites(userId)));
+        } catch (ResponseStatusException e) {
+            Map<String, String> response = new HashMap<>();
+            response.put("error", e.getReason());
+            return new ResponseEntity<>(response, e.getStatusCode());
+        } catch (Exception e) {
+            Map<String, String> response = new HashMap<>();
+            response.put("error", "Error al contar favoritos: " + e.getMessage());
+            return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     /**
      * Verifica si un producto está en los favoritos de un usuario.
      * 
@@ -144,7 +229,7 @@ public class FavoriteController {
             // Validar que el usuario autenticado es el mismo que consulta sus favoritos
             validateUserAccess(request, userId);
             
-            boolean isFavorite = userService.isFavorite(userId, productId);
+            boolean isFavorite = favoriteService.isFavorite(userId, productId);
             Map<String, Boolean> response = new HashMap<>();
             response.put("isFavorite", isFavorite);
             
@@ -168,6 +253,17 @@ public class FavoriteController {
      * @throws ResponseStatusException Si el usuario no está autenticado o no coincide
      */
     private void validateUserAccess(HttpServletRequest request, Long userId) {
+        // Si JwtRequestFilter ya autenticó la petición, usar el principal sin volver a verificar el token
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser principal
+                && principal.getId() != null) {
+            if (!principal.getId().equals(userId)) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, 
+                    "No tienes permiso para acceder a los favoritos de otro usuario");
+            }
+            return;
+        }
+
         String token = request.getHeader("Authorization");
         if (token == null || !token.startsWith("Bearer ")) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, 
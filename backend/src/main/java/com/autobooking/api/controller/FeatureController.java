@@ -1,11 +1,14 @@
 package com.autobooking.api.controller;
 
 import com.autobooking.api.model.Feature;
+import com.autobooking.api.service.CatalogVersion;
 import com.autobooking.api.service.FeatureService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.HashMap;
@@ -18,10 +21,12 @@ import java.util.Map;
 public class FeatureController {
 
     private final FeatureService featureService;
+    private final CatalogVersion catalogVersion;
 
     @Autowired
-    public FeatureController(FeatureService featureService) {
+    public FeatureController(FeatureService featureService, CatalogVersion catalogVersion) {
         this.featureService = featureService;
+        this.catalogVersion = catalogVersion;
     }
 
     @PostMapping
@@ -44,9 +49,13 @@ public class FeatureController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Feature>> listFeatures() {
+    public ResponseEntity<List<Feature>> listFeatures(WebRequest webRequest) {
+        // Si el catálogo no cambió desde el ETag del cliente se responde 304 sin consultar la base de datos
+        if (webRequest.checkNotModified(catalogVersion.catalogETag())) {
+            return null;
+        }
         List<Feature> features = featureService.listFeatures();
-        return new ResponseEntity<>(features, HttpStatus.OK);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(features);
     }
 
     @GetMapping("/{id}")
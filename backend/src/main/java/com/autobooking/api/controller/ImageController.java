@@ -0,0 +1,99 @@
+package com.autobooking.api.controller;
+
+import com.autobooking.api.service.ImageStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/images")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"})
+public class ImageController {
+
+    // El contenido de un hash nunca cambia: se puede cachear un año sin revalidar
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    private final ImageStore imageStore;
+
+    @Autowired
+    public ImageController(ImageStore imageStore) {
+        this.imageStore = imageStore;
+    }
+
+    /**
+     * Sube una imagen y devuelve su identificador y URL pública.
+     * 
+     * @param file Archivo de imagen (multipart)
+     * @return Hash de la imagen y URL para usarla en un producto
+     */
+    @PostMapping
+    public ResponseEntity<?> uploadImage(@RequestParam("file") MultipartFile file) {
+        try (InputStream content = file.getInputStream()) {
+            String hash = imageStore.store(content);
+            Map<String, String> response = new HashMap<>();
+            response.put("id", hash);
+            response.put("url", imageStore.publicUrlOf(imageStore.urlOf(hash), imageStore.publicBaseUrl()));
+            return new ResponseEntity<>(response, HttpStatus.CREATED);
+        } catch (Exception e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Error al guardar la imagen: " + e.getMessage());
+            return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Devuelve los bytes de una imagen. El archivo se copia a la respuesta con
+     * FileChannel.transferTo, por bloques y sin cargarlo completo en memoria.
+     * 
+     * @param hash Hash SHA-256 de la imagen
+     */
+    @GetMapping("/{hash}")
+    public void getImage(@PathVariable String hash, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path path;
+        try {
+            path = imageStore.resolve(hash);
+        } catch (ResponseStatusException e) {
+            response.sendError(e.getStatusCode().value(), e.getReason());
+            return;
+        }
+
+        String etag = "\"" + hash + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            response.setContentType(imageStore.contentTypeOf(path));
+            response.setContentLengthLong(size);
+
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, out);
+            }
+            response.flushBuffer();
+        }
+    }
+}
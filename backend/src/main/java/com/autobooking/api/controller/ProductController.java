@@ -1,20 +1,36 @@
 package com.autobooking.api.controller;
 
+import com.autobooking.api.config.ImageUrlSerializer;
+import com.autobooking.api.dto.ProductSummary;
 import com.autobooking.api.model.Category;
 import com.autobooking.api.model.Feature;
 import com.autobooking.api.model.Product;
 import com.autobooking.api.model.Booking;
+import com.autobooking.api.service.CatalogVersion;
 import com.autobooking.api.service.CategoryService;
 import com.autobooking.api.service.FeatureService;
+import com.autobooking.api.service.ImageStore;
 import com.autobooking.api.service.ProductService;
 import com.autobooking.api.service.BookingService;
+import com.autobooking.api.util.LogSampler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -30,17 +46,29 @@ import java.util.NoSuchElementException;
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"})
 public class ProductController {
 
+    private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
+    private static final String NDJSON = "application/x-ndjson";
+
     private final ProductService productService;
     private final CategoryService categoryService;
     private final FeatureService featureService;
     private final BookingService bookingService;
+    private final LogSampler unavailableDatesLogSampler;
+    private final ObjectMapper objectMapper;
+    private final CatalogVersion catalogVersion;
+    private final ImageStore imageStore;
 
     @Autowired
-    public ProductController(ProductService productService, CategoryService categoryService, FeatureService featureService, BookingService bookingService) {
+    public ProductController(ProductService productService, CategoryService categoryService, FeatureService featureService, BookingService bookingService,
+                             ObjectMapper objectMapper, CatalogVersion catalogVersion, ImageStore imageStore, @Value("${app.logging.sample-rate.unavailable-dates:1.0}") double unavailableDatesSampleRate) {
         this.productService = productService;
         this.categoryService = categoryService;
         this.featureService = featureService;
         this.bookingService = bookingService;
+        this.unavailableDatesLogSampler = new LogSampler(unavailableDatesSampleRate);
+        this.objectMapper = objectMapper;
+        this.catalogVersion = catalogVersion;
+        this.imageStore = imageStore;
     }
 
     @PostMapping
@@ -89,10 +117,62 @@ public class ProductController {
         }
     }
     
+    /**
+     * Lista los productos. Con after o limit la respuesta es una página por cursor
+     * ({items, nextCursor, hasMore}); sin ellos se devuelve la lista completa, como antes.
+     * Responde 304 si el catálogo no cambió desde el ETag enviado en If-None-Match.
+     * 
+     * @param after ID del último producto de la página anterior
+     * @param limit Tamaño de página (máximo 200)
+     */
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        List<Product> products = productService.findAll();
-        return new ResponseEntity<>(products, HttpStatus.OK);
+    public ResponseEntity<?> getAllProducts(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(catalogVersion.catalogETag())) {
+            return null;
+        }
+        if (after == null && limit == null) {
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(productService.findAll());
+        }
+        try {
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(productService.findPage(after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Cantidad total de productos
+     */
+    @GetMapping("/count")
+    public ResponseEntity<?> countProducts() {
+        return ResponseEntity.ok(Map.of("count", productService.count()));
+    }
+    
+    /**
+     * Resumen de todos los productos en formato NDJSON (un objeto JSON por línea), escrito a
+     * medida que se lee de la base de datos; la memoria usada no depende del tamaño del catálogo.
+     */
+    @GetMapping(value = "/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamProducts() {
+        // El cuerpo se escribe en otro hilo, sin la petición a mano: la base de las URLs se toma ahora
+        ObjectWriter writer = objectMapper.writer()
+                .withAttribute(ImageUrlSerializer.BASE_URL_ATTRIBUTE, imageStore.publicBaseUrl());
+        StreamingResponseBody body = out -> {
+            productService.forEachSummary(summary -> {
+                try {
+                    // writeValue(out, ...) cerraría la respuesta tras el primer objeto (AUTO_CLOSE_TARGET)
+                    out.write(writer.writeValueAsBytes(summary));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
     }
     
     @DeleteMapping("/{id}")
@@ -157,32 +237,34 @@ public class ProductController {
     }
 
     /**
-     * Endpoint para búsqueda de productos por rango de fechas y categoría opcional
+     * Endpoint para búsqueda de productos por texto, rango de fechas, categoría y característica opcionales
      *
      * @param startDate Fecha de inicio en formato YYYY-MM-DD
      * @param endDate Fecha de fin en formato YYYY-MM-DD
      * @param categoryId ID de categoría opcional
+     * @param featureId ID de característica opcional
+     * @param q Texto opcional a buscar en nombre, descripción, categoría y características; sin sort,
+     *          los resultados se ordenan por relevancia
+     * @param sort Orden opcional: "popular" ordena por reservas y favoritos recientes
      * @return Lista de productos disponibles según los criterios
      */
     @GetMapping("/search")
     public ResponseEntity<?> searchProducts(
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate,
-            @RequestParam(required = false) Long categoryId) {
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long featureId,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String sort) {
         
         try {
-            System.out.println("DEBUG - Endpoint searchProducts - startDate: " + startDate + 
-                    ", endDate: " + endDate + ", categoryId: " + categoryId);
-                    
-            List<Product> results = productService.searchProducts(startDate, endDate, categoryId);
-            
-            System.out.println("DEBUG - Resultados encontrados: " + results.size());
+            List<Product> results = productService.searchProducts(q, startDate, endDate, categoryId, featureId, sort);
             
             // Información opcional sobre la búsqueda para el frontend
             Map<String, Object> response = new HashMap<>();
             response.put("results", results);
             response.put("count", results.size());
-            response.put("totalProducts", productService.findAll().size());
+            response.put("totalProducts", productService.count());
             
             if (categoryId != null) {
                 try {
@@ -198,72 +280,141 @@ public class ProductController {
         } catch (ResponseStatusException e) {
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", e.getReason());
-            System.out.println("ERROR - searchProducts: " + e.getReason());
+            logger.debug("product.search.rejected status={} reason={}", e.getStatusCode().value(), e.getReason());
             return new ResponseEntity<>(errorResponse, e.getStatusCode());
         } catch (Exception e) {
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", "Error al buscar productos: " + e.getMessage());
-            System.out.println("ERROR - searchProducts: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("product.search.failed q={} startDate={} endDate={} categoryId={} featureId={}",
+                    q, startDate, endDate, categoryId, featureId, e);
+            return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Productos en tendencia: los de mayor puntaje por reservas y favoritos recientes, en orden
+     * de popularidad. Se responden desde el ranking en memoria, sin consultas de agregación.
+     *
+     * @param categoryId ID de categoría opcional
+     * @param limit Cantidad de productos (por defecto 10)
+     * @return Lista de productos en orden de popularidad
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<?> getTrendingProducts(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return new ResponseEntity<>(productService.findTrending(categoryId, limit), HttpStatus.OK);
+        } catch (ResponseStatusException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getReason());
+            return new ResponseEntity<>(errorResponse, e.getStatusCode());
+        }
+    }
+
+    /**
+     * Listado reducido de productos para la grilla del frontend: id, nombre, precio, nombre de
+     * categoría, IDs de características y miniatura
+     * 
+     * @param categoryId ID de categoría opcional
+     * @param featureId ID de característica opcional
+     * @return Lista de resúmenes de producto
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<List<ProductSummary>> getProductSummaries(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long featureId,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(catalogVersion.catalogETag())) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache())
+                .body(productService.findSummaries(categoryId, featureId));
+    }
+    
+    /**
+     * Búsqueda con los mismos criterios que /search, pero devolviendo solo el resumen de cada producto
+     * 
+     * @param startDate Fecha de inicio en formato YYYY-MM-DD
+     * @param endDate Fecha de fin en formato YYYY-MM-DD
+     * @param categoryId ID de categoría opcional
+     * @param featureId ID de característica opcional
+     * @param q Texto opcional a buscar en nombre, descripción, categoría y características; sin sort,
+     *          los resultados se ordenan por relevancia
+     * @param sort Orden opcional: "popular" ordena por reservas y favoritos recientes
+     * @return Resúmenes de los productos disponibles según los criterios
+     */
+    @GetMapping("/search/summary")
+    public ResponseEntity<?> searchProductSummaries(
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long featureId,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String sort) {
+        
+        try {
+            List<ProductSummary> results = productService.searchSummaries(q, startDate, endDate, categoryId, featureId, sort);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("results", results);
+            response.put("count", results.size());
+            return new ResponseEntity<>(response, HttpStatus.OK);
+            
+        } catch (ResponseStatusException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getReason());
+            return new ResponseEntity<>(errorResponse, e.getStatusCode());
+        } catch (Exception e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Error al buscar productos: " + e.getMessage());
+            logger.error("product.search.failed q={} startDate={} endDate={} categoryId={} featureId={}",
+                    q, startDate, endDate, categoryId, featureId, e);
             return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
     /**
      * Endpoint para obtener las fechas no disponibles de un producto
-     * En el futuro, estas fechas se obtendrán de las reservas del producto
+     * Las fechas se obtienen del calendario de ocupación construido a partir de las reservas activas
      * 
      * @param id ID del producto
      * @return Lista de fechas no disponibles
      */
     @GetMapping("/{id}/unavailable-dates")
-    public ResponseEntity<?> getUnavailableDates(@PathVariable Long id) {
+    public ResponseEntity<?> getUnavailableDates(@PathVariable Long id, WebRequest webRequest) {
+        // Sin reservas nuevas ni canceladas del producto desde el ETag del cliente: 304 sin consultar nada
+        if (webRequest.checkNotModified(catalogVersion.availabilityETag(id))) {
+            return null;
+        }
         try {
             // Verifica si el producto existe
             Product product = productService.findById(id);
-            System.out.println("DEBUG - Buscando fechas no disponibles para producto: " + id);
-            
-            // Obtener las reservas activas para el producto
-            List<Booking> activeBookings = bookingService.getActiveBookingsForProduct(id);
-            System.out.println("DEBUG - Reservas activas encontradas: " + activeBookings.size());
             
-            // Información adicional sobre la consulta
-            System.out.println("DEBUG - Consulta SQL ejecutada: findActiveBookingsByProductId con id=" + id);
-            System.out.println("DEBUG - Parámetros - productId: " + id + ", cancelledStatus: " + Booking.BookingStatus.CANCELLED);
+            // Obtener los rangos ocupados desde el calendario de ocupación
+            List<LocalDate[]> unavailableRanges = bookingService.getUnavailableDateRanges(id);
             
-            // Imprimir detalles de cada reserva
-            for (Booking booking : activeBookings) {
-                System.out.println("DEBUG - Reserva: " + booking.getId() + 
-                    " - Desde: " + booking.getStartDate() + 
-                    " - Hasta: " + booking.getEndDate() + 
-                    " - Estado: " + booking.getStatus() +
-                    " - Usuario: " + (booking.getUser() != null ? booking.getUser().getId() : "null"));
-            }
-            
-            // Convertir las reservas a fechas no disponibles
+            // Convertir los rangos al formato esperado por el frontend
             List<Map<String, Object>> unavailableDates = new ArrayList<>();
             
-            for (Booking booking : activeBookings) {
+            for (LocalDate[] range : unavailableRanges) {
                 Map<String, Object> dateRange = new HashMap<>();
                 dateRange.put("type", "range");
-                String startDate = booking.getStartDate().toString();
-                String endDate = booking.getEndDate().toString();
-                dateRange.put("startDate", startDate);
-                dateRange.put("endDate", endDate);
+                dateRange.put("startDate", range[0].toString());
+                dateRange.put("endDate", range[1].toString());
                 unavailableDates.add(dateRange);
-                System.out.println("DEBUG - Agregada fechas no disponibles desde: " + 
-                    startDate + " hasta: " + endDate);
             }
             
             Map<String, Object> response = new HashMap<>();
             response.put("productId", id);
             response.put("unavailableDates", unavailableDates);
-            System.out.println("DEBUG - Respuesta final: " + response);
+            if (logger.isDebugEnabled() && unavailableDatesLogSampler.sample()) {
+                logger.debug("product.unavailable_dates productId={} ranges={}", id, unavailableDates.size());
+            }
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(response);
         } catch (Exception e) {
-            System.out.println("ERROR - Error al obtener fechas no disponibles: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("product.unavailable_dates.failed productId={}", id, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error al obtener fechas no disponibles: " + e.getMessage()));
         }
@@ -271,14 +422,17 @@ public class ProductController {
 
     @GetMapping("/{id}")
     @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"})
-    public ResponseEntity<?> getProductById(@PathVariable Long id) {
+    public ResponseEntity<?> getProductById(@PathVariable Long id, WebRequest webRequest) {
+        if (webRequest.checkNotModified(catalogVersion.catalogETag())) {
+            return null;
+        }
         try {
             Product product = productService.findById(id);
             if (product == null) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(Map.of("error", "Producto no encontrado con ID: " + id));
             }
-            return ResponseEntity.ok(product);
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(product);
         } catch (ResponseStatusException e) {
             return ResponseEntity.status(e.getStatusCode())
                     .body(Map.of("error", e.getReason()));
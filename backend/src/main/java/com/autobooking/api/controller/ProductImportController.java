@@ -0,0 +1,80 @@
+package com.autobooking.api.controller;
+
+import com.autobooking.api.dto.ImportReport;
+import com.autobooking.api.service.ProductImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Importación masiva de productos (solo administradores). El cuerpo se procesa mientras se
+ * recibe, sin guardarlo completo en memoria.
+ */
+@RestController
+@RequestMapping("/api/products")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"})
+public class ProductImportController {
+
+    private static final int READ_BUFFER_CHARS = 64 * 1024;
+
+    private final ProductImportService productImportService;
+
+    @Autowired
+    public ProductImportController(ProductImportService productImportService) {
+        this.productImportService = productImportService;
+    }
+
+    /**
+     * Importa productos desde CSV (Content-Type text/csv) o NDJSON (application/x-ndjson).
+     *
+     * CSV: cabecera con name, description, price y opcionalmente category, features e images
+     * (varios valores separados por "|"). NDJSON: un objeto por línea con los mismos campos,
+     * features e images como arreglos. Categorías y características se indican por nombre.
+     *
+     * @return {imported, failed, errors: [{line, error}], errorsTruncated}
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> importProducts(HttpServletRequest request, InputStream body) {
+        try (Reader reader = new BufferedReader(new InputStreamReader(body, charsetOf(request)), READ_BUFFER_CHARS)) {
+            ImportReport report = request.getContentType().startsWith("text/csv")
+                    ? productImportService.importCsv(reader)
+                    : productImportService.importNdjson(reader);
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        } catch (IOException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Error al leer el archivo: " + e.getMessage());
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // UTF-8 salvo que el Content-Type indique otro charset
+    private static Charset charsetOf(HttpServletRequest request) {
+        String encoding = request.getCharacterEncoding();
+        if (encoding == null) {
+            return StandardCharsets.UTF_8;
+        }
+        try {
+            return Charset.forName(encoding);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Charset no soportado: " + encoding);
+        }
+    }
+}
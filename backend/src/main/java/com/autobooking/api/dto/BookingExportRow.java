@@ -0,0 +1,91 @@
+package com.autobooking.api.dto;
+
+import com.autobooking.api.model.Booking;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Fila de la exportación de reservas: datos planos de la reserva, su usuario y su producto.
+ *
+ * Se construye directamente desde una consulta JPQL (SELECT new ...); al no ser entidades, no
+ * se acumulan en el contexto de persistencia mientras se recorre el resultado.
+ */
+public class BookingExportRow {
+
+    public static final String[] CSV_HEADER = {
+        "id", "userId", "userEmail", "productId", "productName",
+        "startDate", "endDate", "totalPrice", "status", "createdAt"
+    };
+
+    private final Long id;
+    private final Long userId;
+    private final String userEmail;
+    private final Long productId;
+    private final String productName;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final BigDecimal totalPrice;
+    private final Booking.BookingStatus status;
+    private final LocalDate createdAt;
+
+    public BookingExportRow(Long id, Long userId, String userEmail, Long productId, String productName,
+                            LocalDate startDate, LocalDate endDate, BigDecimal totalPrice,
+                            Booking.BookingStatus status, LocalDate createdAt) {
+        this.id = id;
+        this.userId = userId;
+        this.userEmail = userEmail;
+        this.productId = productId;
+        this.productName = productName;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.totalPrice = totalPrice;
+        this.status = status;
+        this.createdAt = createdAt;
+    }
+
+    // Valores en el orden de CSV_HEADER
+    public Object[] toCsvValues() {
+        return new Object[] {id, userId, userEmail, productId, productName, startDate, endDate, totalPrice, status, createdAt};
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUserEmail() {
+        return userEmail;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public BigDecimal getTotalPrice() {
+        return totalPrice;
+    }
+
+    public Booking.BookingStatus getStatus() {
+        return status;
+    }
+
+    public LocalDate getCreatedAt() {
+        return createdAt;
+    }
+}
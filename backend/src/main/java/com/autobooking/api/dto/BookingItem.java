@@ -0,0 +1,37 @@
+package com.autobooking.api.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Una reserva dentro de un lote (POST /api/bookings/batch): producto y rango de fechas. El
+ * usuario es común a todo el lote.
+ */
+public class BookingItem {
+
+    private final Long productId;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+
+    public BookingItem(Long productId, LocalDate startDate, LocalDate endDate) {
+        this.productId = productId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    // Dos rangos de fechas con los extremos incluidos se solapan
+    public boolean overlaps(LocalDate otherStart, LocalDate otherEnd) {
+        return !startDate.isAfter(otherEnd) && !otherStart.isAfter(endDate);
+    }
+}
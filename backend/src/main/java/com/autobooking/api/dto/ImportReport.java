@@ -0,0 +1,50 @@
+package com.autobooking.api.dto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resultado de una importación masiva: filas importadas, filas con error y el detalle de los
+ * primeros errores ({line, error}). Solo se guardan MAX_ERRORS errores para que el reporte no
+ * crezca con el tamaño del archivo; el resto se cuenta en failed.
+ */
+public class ImportReport {
+
+    public static final int MAX_ERRORS = 200;
+
+    private long imported;
+    private long failed;
+    private final List<Map<String, Object>> errors = new ArrayList<>();
+
+    public void imported(int rows) {
+        imported += rows;
+    }
+
+    public void failed(long line, String error) {
+        failed++;
+        if (errors.size() < MAX_ERRORS) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("line", line);
+            entry.put("error", error);
+            errors.add(entry);
+        }
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public List<Map<String, Object>> getErrors() {
+        return errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return failed > errors.size();
+    }
+}
@@ -0,0 +1,66 @@
+package com.autobooking.api.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de un listado paginado por cursor (keyset): los elementos se ordenan por ID y la
+ * siguiente página se pide con ?after={nextCursor}. A diferencia de OFFSET, el costo de cada
+ * página no crece con su posición y no se saltan ni repiten filas si se insertan otras entre
+ * peticiones.
+ */
+public class KeysetPage<T> {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    private final List<T> items;
+    private final Long nextCursor;
+
+    private KeysetPage(List<T> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Arma la página a partir de hasta limit + 1 filas: la fila extra solo indica que hay más.
+     *
+     * @param rows Filas leídas (como máximo limit + 1), ordenadas por ID ascendente
+     * @param limit Tamaño de la página
+     * @param idOf Función que obtiene el ID de un elemento
+     */
+    public static <T> KeysetPage<T> of(List<T> rows, int limit, Function<T, Long> idOf) {
+        if (rows.size() <= limit) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new KeysetPage<>(items, idOf.apply(items.get(limit - 1)));
+    }
+
+    /**
+     * Tamaño de página efectivo: el valor por defecto si no se indicó y nunca mayor que MAX_LIMIT.
+     *
+     * @throws IllegalArgumentException si el límite no es positivo
+     */
+    public static int normalizeLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("El parámetro limit debe ser mayor que cero");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return nextCursor != null;
+    }
+}
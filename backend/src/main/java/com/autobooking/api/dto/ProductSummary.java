@@ -0,0 +1,61 @@
+package com.autobooking.api.dto;
+
+import com.autobooking.api.config.ImageUrlSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Vista reducida de un producto para listados y tarjetas de resultados: solo los datos que se
+ * muestran en la grilla, sin descripción, galería de imágenes ni entidades relacionadas.
+ *
+ * Se construye directamente desde una consulta JPQL (SELECT new ...), sin hidratar entidades.
+ */
+public class ProductSummary {
+
+    private final Long id;
+    private final String name;
+    private final BigDecimal price;
+    private final String categoryName;
+    @JsonSerialize(using = ImageUrlSerializer.class)
+    private final String thumbnail;
+    private List<Long> featureIds = new ArrayList<>();
+
+    public ProductSummary(Long id, String name, BigDecimal price, String categoryName, String thumbnail) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.categoryName = categoryName;
+        this.thumbnail = thumbnail;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public String getThumbnail() {
+        return thumbnail;
+    }
+
+    public List<Long> getFeatureIds() {
+        return featureIds;
+    }
+
+    public void setFeatureIds(List<Long> featureIds) {
+        this.featureIds = featureIds;
+    }
+}
@@ -6,11 +6,29 @@ import java.time.LocalDate;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "bookings")
+// Índices para las consultas de disponibilidad (producto, estado y fechas) y los listados por
+// usuario. Se crean en las migraciones (db/migration), junto con la restricción de exclusión
+// sobre rangos de fechas propia de PostgreSQL
+@Table(name = "bookings", indexes = {
+    @Index(name = "idx_bookings_product_status_dates", columnList = "product_id, booking_status, start_date, end_date"),
+    @Index(name = "idx_bookings_user_id", columnList = "user_id, id")
+})
+@NamedEntityGraph(name = Booking.GRAPH_WITH_PRODUCT, attributeNodes = {
+    @NamedAttributeNode("user"),
+    @NamedAttributeNode(value = "product", subgraph = "product")
+}, subgraphs = {
+    @NamedSubgraph(name = "product", attributeNodes = @NamedAttributeNode("category"))
+})
 public class Booking {
 
+    // Listados de reservas: usuario, producto y su categoría en la misma consulta
+    public static final String GRAPH_WITH_PRODUCT = "Booking.withProduct";
+
+    // Secuencia con bloques de 50 IDs: a diferencia de IDENTITY, Hibernate conoce el ID antes del
+    // INSERT y puede agrupar las inserciones en lotes JDBC (hibernate.jdbc.batch_size)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
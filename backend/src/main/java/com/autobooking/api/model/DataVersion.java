@@ -0,0 +1,45 @@
+package com.autobooking.api.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Versión de un conjunto de datos, usada por CatalogVersion para los ETag. Se incrementa con SQL
+ * en la misma transacción que modifica los datos; la entidad solo declara la tabla.
+ */
+@Entity
+@Table(name = "data_versions")
+public class DataVersion {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(nullable = false)
+    private long version;
+
+    // Constructores
+    public DataVersion() {
+    }
+
+    public DataVersion(String name, long version) {
+        this.name = name;
+        this.version = version;
+    }
+
+    // Getters y Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+}
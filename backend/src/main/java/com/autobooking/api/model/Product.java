@@ -1,19 +1,58 @@
 package com.autobooking.api.model;
 
+import com.autobooking.api.config.ImageUrlSerializer;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+/**
+ * Todas las asociaciones son perezosas; cada caso de uso declara qué necesita con un grafo de
+ * entidad:
+ * <ul>
+ *   <li>Product.listing: categoría en la misma consulta; imágenes y características se cargan
+ *       con una subconsulta por colección para todos los productos del listado.</li>
+ *   <li>Product.detail: categoría y características en la misma consulta; las imágenes se cargan
+ *       aparte para no multiplicar filas imágenes × características.</li>
+ * </ul>
+ * Las reservas usan el grafo Booking.withProduct. Así el número de consultas de un listado es
+ * constante y no depende del tamaño de la flota.
+ *
+ * El producto y sus colecciones se guardan en la caché de segundo nivel (regiones catalog.*,
+ * configuradas en application.conf); Hibernate las actualiza al guardar o eliminar.
+ */
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+    @Index(name = "idx_products_category_id", columnList = "category_id")
+})
+@BatchSize(size = 50)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog-product")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@NamedEntityGraph(name = Product.GRAPH_LISTING, attributeNodes = {
+    @NamedAttributeNode("category")
+})
+@NamedEntityGraph(name = Product.GRAPH_DETAIL, attributeNodes = {
+    @NamedAttributeNode("category"),
+    @NamedAttributeNode("features")
+})
 public class Product {
 
+    public static final String GRAPH_LISTING = "Product.listing";
+    public static final String GRAPH_DETAIL = "Product.detail";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -25,12 +64,19 @@ public class Product {
     @Column(columnDefinition = "TEXT")
     private String description;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "product_images", joinColumns = @JoinColumn(name = "product_id"))
+    @ElementCollection
+    @Fetch(FetchMode.SUBSELECT)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog-product-images")
+    @CollectionTable(name = "product_images", joinColumns = @JoinColumn(name = "product_id"),
+        indexes = @Index(name = "idx_product_images_product_order", columnList = "product_id, image_order"))
     @Column(name = "image", columnDefinition = "TEXT")
+    // Posición de cada imagen en la lista; la primera (0) es la miniatura de los listados
+    @OrderColumn(name = "image_order")
+    // Se guardan como /api/images/{hash}; la URL absoluta se arma al responder
+    @JsonSerialize(contentUsing = ImageUrlSerializer.class)
     private List<String> images = new ArrayList<>();
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
     private Category category;
     
@@ -39,12 +85,16 @@ public class Product {
     @Column(name = "price", precision = 10, scale = 2)
     private BigDecimal price = BigDecimal.ZERO;
     
-    @ManyToMany(fetch = FetchType.EAGER, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
+    @ManyToMany(cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     @JoinTable(
         name = "product_features",
         joinColumns = @JoinColumn(name = "product_id"),
-        inverseJoinColumns = @JoinColumn(name = "feature_id")
+        inverseJoinColumns = @JoinColumn(name = "feature_id"),
+        // La clave primaria (product_id, feature_id) cubre la búsqueda por producto
+        indexes = @Index(name = "idx_product_features_feature_id", columnList = "feature_id, product_id")
     )
+    @Fetch(FetchMode.SUBSELECT)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog-product-features")
     private Set<Feature> features = new HashSet<>();
 
     // Constructores
@@ -0,0 +1,59 @@
+package com.autobooking.api.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Puntaje de popularidad de un producto guardado por PopularityRanking. El puntaje ya tiene
+ * aplicado el decaimiento hasta updatedAt; al cargarlo se aplica el del tiempo transcurrido desde
+ * entonces.
+ */
+@Entity
+@Table(name = "product_popularity")
+public class ProductPopularity {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(nullable = false)
+    private double score;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    // Constructores
+    public ProductPopularity() {
+    }
+
+    public ProductPopularity(Long productId, double score, Instant updatedAt) {
+        this.productId = productId;
+        this.score = score;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters y Setters
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -39,7 +39,9 @@ public class User {
     @JoinTable(
         name = "user_favorites",
         joinColumns = @JoinColumn(name = "user_id"),
-        inverseJoinColumns = @JoinColumn(name = "product_id")
+        inverseJoinColumns = @JoinColumn(name = "product_id"),
+        // La clave primaria (user_id, product_id) cubre la búsqueda por usuario
+        indexes = @Index(name = "idx_user_favorites_product_id", columnList = "product_id, user_id")
     )
     private Set<Product> favorites = new HashSet<>();
 
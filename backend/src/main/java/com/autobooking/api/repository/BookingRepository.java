@@ -1,49 +1,59 @@
 package com.autobooking.api.repository;
 
+import com.autobooking.api.dto.BookingExportRow;
 import com.autobooking.api.model.Booking;
 import com.autobooking.api.model.Booking.BookingStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
     
+    // Los listados cargan usuario, producto y categoría en la misma consulta (grafo Booking.withProduct)
+    @Override
+    @EntityGraph(Booking.GRAPH_WITH_PRODUCT)
+    List<Booking> findAll();
+    
     // Buscar reservas por id de usuario
+    @EntityGraph(Booking.GRAPH_WITH_PRODUCT)
     List<Booking> findByUserId(Long userId);
     
     // Buscar reservas por id de producto
+    @EntityGraph(Booking.GRAPH_WITH_PRODUCT)
     List<Booking> findByProductId(Long productId);
     
     // Buscar reservas por estado
+    @EntityGraph(Booking.GRAPH_WITH_PRODUCT)
     List<Booking> findByStatus(Booking.BookingStatus status);
     
     // Buscar reservas entre fechas
     List<Booking> findByStartDateGreaterThanEqualAndEndDateLessThanEqual(
             LocalDate startDate, LocalDate endDate);
     
-    // Verificar si existen reservas para un producto en un rango de fechas específico
+    // Verificar si existen reservas activas (pendientes o confirmadas, igual que el índice de
+    // disponibilidad y la restricción bookings_no_overlap) para un producto en un rango de fechas.
+    // Dos rangos con los extremos incluidos se solapan si cada uno empieza antes de que termine el
+    // otro; esta forma se resuelve con el índice idx_bookings_product_status_dates
     @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.product.id = :productId " +
-           "AND b.status != :cancelledStatus " +
-           "AND (" +
-                // El inicio de la reserva existente está entre las fechas solicitadas
-                "(b.startDate BETWEEN :startDate AND :endDate) " +
-                // El fin de la reserva existente está entre las fechas solicitadas
-                "OR (b.endDate BETWEEN :startDate AND :endDate) " +
-                // El inicio solicitado está entre la reserva existente
-                "OR (:startDate BETWEEN b.startDate AND b.endDate) " +
-                // El fin solicitado está entre la reserva existente
-                "OR (:endDate BETWEEN b.startDate AND b.endDate)" +
-           ")")
+           "AND (b.status = com.autobooking.api.model.Booking$BookingStatus.PENDING " +
+           "   OR b.status = com.autobooking.api.model.Booking$BookingStatus.CONFIRMED) " +
+           "AND b.startDate <= :endDate AND b.endDate >= :startDate")
     boolean existsOverlappingBooking(
             @Param("productId") Long productId,
             @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate,
-            @Param("cancelledStatus") Booking.BookingStatus cancelledStatus);
+            @Param("endDate") LocalDate endDate);
             
     // Obtener todas las reservas activas (no canceladas) para un producto
     @Query("SELECT b FROM Booking b WHERE b.product.id = :productId " +
@@ -62,4 +72,45 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
            "   OR b.status = com.autobooking.api.model.Booking$BookingStatus.CONFIRMED) " +
            "ORDER BY b.startDate")
     List<Booking> findAllActiveBookingsForProduct(@Param("productId") Long productId);
-} 
\ No newline at end of file
+    
+    // Rangos (id, productId, inicio, fin) de todas las reservas activas, sin cargar entidades
+    @Query("SELECT b.id, b.product.id, b.startDate, b.endDate FROM Booking b " +
+           "WHERE b.status = com.autobooking.api.model.Booking$BookingStatus.PENDING " +
+           "   OR b.status = com.autobooking.api.model.Booking$BookingStatus.CONFIRMED")
+    List<Object[]> findActiveBookingRanges();
+    
+    // Rangos (productId, inicio, fin) de las reservas activas de varios productos que tocan el
+    // intervalo [from, to], para validar un lote de reservas con una sola consulta
+    @Query("SELECT b.product.id, b.startDate, b.endDate FROM Booking b " +
+           "WHERE b.product.id IN :productIds " +
+           "AND (b.status = com.autobooking.api.model.Booking$BookingStatus.PENDING " +
+           "   OR b.status = com.autobooking.api.model.Booking$BookingStatus.CONFIRMED) " +
+           "AND b.startDate <= :to AND b.endDate >= :from")
+    List<Object[]> findRangesForProducts(
+            @Param("productIds") Collection<Long> productIds,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+    
+    // Páginas por cursor: reservas con ID mayor que after, en orden de ID (el tamaño lo fija pageable)
+    @EntityGraph(Booking.GRAPH_WITH_PRODUCT)
+    @Query("SELECT b FROM Booking b WHERE b.id > :after ORDER BY b.id")
+    List<Booking> findPageAfter(@Param("after") Long after, Pageable pageable);
+    
+    @EntityGraph(Booking.GRAPH_WITH_PRODUCT)
+    @Query("SELECT b FROM Booking b WHERE b.user.id = :userId AND b.id > :after ORDER BY b.id")
+    List<Booking> findByUserIdPageAfter(@Param("userId") Long userId, @Param("after") Long after, Pageable pageable);
+    
+    // Filas de exportación de las reservas que tocan el intervalo [from, to] con alguno de los
+    // estados indicados, en orden de ID, leídas por bloques del cursor de la base de datos;
+    // debe consumirse dentro de una transacción y cerrarse al terminar
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.autobooking.api.dto.BookingExportRow(b.id, u.id, u.email, p.id, p.name, " +
+           "   b.startDate, b.endDate, b.totalPrice, b.status, b.createdAt) " +
+           "FROM Booking b JOIN b.user u JOIN b.product p " +
+           "WHERE b.startDate <= :to AND b.endDate >= :from AND b.status IN :statuses " +
+           "ORDER BY b.id")
+    Stream<BookingExportRow> streamForExport(
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("statuses") Collection<Booking.BookingStatus> statuses);
+}
@@ -1,12 +1,22 @@
 package com.autobooking.api.repository;
 
 import com.autobooking.api.model.Feature;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface FeatureRepository extends JpaRepository<Feature, Long> {
+    // Resultados en la caché de consultas; se invalidan al modificarse la tabla
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Feature> findAll();
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Feature> findByName(String name);
 } 
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.autobooking.api.repository;
+
+import com.autobooking.api.model.ProductPopularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProductPopularityRepository extends JpaRepository<ProductPopularity, Long> {
+}
@@ -1,23 +1,214 @@
 package com.autobooking.api.repository;
 
+import com.autobooking.api.dto.ProductSummary;
 import com.autobooking.api.model.Product;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
+    // Los listados usan el grafo Product.listing y el detalle Product.detail (ver Product). Los
+    // finders del catálogo guardan sus resultados en la caché de consultas, que Hibernate invalida
+    // al modificarse las tablas consultadas; los que consultan reservas no se cachean
+    @Override
+    @EntityGraph(Product.GRAPH_LISTING)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Product> findAll();
+    
+    @Override
+    @EntityGraph(Product.GRAPH_DETAIL)
+    Optional<Product> findById(Long id);
+    
+    // Producto con sus imágenes ya cargadas, para usarlo fuera de una sesión
+    @EntityGraph(attributePaths = "images")
+    Optional<Product> findWithImagesById(Long id);
+    
     // Métodos para buscar por categoría
+    @EntityGraph(Product.GRAPH_LISTING)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Product> findByCategoryId(Long categoryId);
+    @EntityGraph(Product.GRAPH_LISTING)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Product> findByCategoryName(String categoryName);
     
     // Métodos para buscar por características
+    @EntityGraph(Product.GRAPH_LISTING)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT p FROM Product p JOIN p.features f WHERE f.id = :featureId")
     List<Product> findByFeatureId(@Param("featureId") Long featureId);
     
+    @EntityGraph(Product.GRAPH_LISTING)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT p FROM Product p JOIN p.features f WHERE f.name = :featureName")
     List<Product> findByFeatureName(@Param("featureName") String featureName);
-} 
\ No newline at end of file
+    
+    // Productos filtrados por categoría y/o característica (los filtros nulos se ignoran)
+    @EntityGraph(Product.GRAPH_LISTING)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT p FROM Product p " +
+           "WHERE (:categoryId IS NULL OR p.category.id = :categoryId) " +
+           "AND (:featureId IS NULL OR EXISTS (" +
+           "   SELECT 1 FROM Product pf JOIN pf.features f WHERE pf = p AND f.id = :featureId))")
+    List<Product> findFiltered(
+            @Param("categoryId") Long categoryId,
+            @Param("featureId") Long featureId);
+    
+    // Productos sin reservas activas que se solapen con el rango solicitado, resuelto en una sola
+    // consulta (anti-join con NOT EXISTS) en lugar de verificar la disponibilidad producto por producto
+    @EntityGraph(Product.GRAPH_LISTING)
+    @Query("SELECT p FROM Product p " +
+           "WHERE (:categoryId IS NULL OR p.category.id = :categoryId) " +
+           "AND (:featureId IS NULL OR EXISTS (" +
+           "   SELECT 1 FROM Product pf JOIN pf.features f WHERE pf = p AND f.id = :featureId)) " +
+           "AND NOT EXISTS (" +
+           "   SELECT 1 FROM Booking b WHERE b.product = p " +
+           "   AND (b.status = com.autobooking.api.model.Booking$BookingStatus.PENDING " +
+           "     OR b.status = com.autobooking.api.model.Booking$BookingStatus.CONFIRMED) " +
+           "   AND b.startDate <= :endDate " +
+           "   AND b.endDate >= :startDate)")
+    List<Product> findAvailableInRange(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("categoryId") Long categoryId,
+            @Param("featureId") Long featureId);
+    
+    // Carga el producto bloqueando su fila (SELECT ... FOR UPDATE) hasta el fin de la transacción,
+    // para serializar en la base de datos las reservas concurrentes del mismo producto
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") Long id);
+    
+    // Varios productos bloqueados a la vez; el orden por ID fija el orden de los bloqueos y evita
+    // interbloqueos entre lotes de reservas que comparten productos
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+    
+    // IDs de productos que aún tienen imágenes en Base64 guardadas en la base de datos, o URLs
+    // absolutas del almacén (anteriores a guardar solo la ruta /api/images/{hash})
+    @Query("SELECT DISTINCT p.id FROM Product p JOIN p.images i WHERE i LIKE 'data:%' OR i LIKE 'http%/api/images/%'")
+    List<Long> findIdsWithImagesToRewrite();
+    
+    // Vista reducida para listados: una sola consulta con expresión de constructor, sin cargar
+    // entidades; la miniatura es la primera imagen de la lista del producto (image_order = 0)
+    @Query("SELECT new com.autobooking.api.dto.ProductSummary(p.id, p.name, p.price, c.name, " +
+           "   (SELECT i FROM Product pi JOIN pi.images i WHERE pi = p AND INDEX(i) = 0)) " +
+           "FROM Product p LEFT JOIN p.category c " +
+           "WHERE (:categoryId IS NULL OR c.id = :categoryId) " +
+           "AND (:featureId IS NULL OR EXISTS (" +
+           "   SELECT 1 FROM Product pf JOIN pf.features f WHERE pf = p AND f.id = :featureId)) " +
+           "ORDER BY p.id")
+    List<ProductSummary> findSummaries(
+            @Param("categoryId") Long categoryId,
+            @Param("featureId") Long featureId);
+    
+    // IDs de los productos sin reservas activas que se solapen con el rango (mismo anti-join que findAvailableInRange)
+    @Query("SELECT p.id FROM Product p " +
+           "WHERE (:categoryId IS NULL OR p.category.id = :categoryId) " +
+           "AND (:featureId IS NULL OR EXISTS (" +
+           "   SELECT 1 FROM Product pf JOIN pf.features f WHERE pf = p AND f.id = :featureId)) " +
+           "AND NOT EXISTS (" +
+           "   SELECT 1 FROM Booking b WHERE b.product = p " +
+           "   AND (b.status = com.autobooking.api.model.Booking$BookingStatus.PENDING " +
+           "     OR b.status = com.autobooking.api.model.Booking$BookingStatus.CONFIRMED) " +
+           "   AND b.startDate <= :endDate " +
+           "   AND b.endDate >= :startDate)")
+    List<Long> findAvailableIdsInRange(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("categoryId") Long categoryId,
+            @Param("featureId") Long featureId);
+    
+    // Pares (productId, featureId) de los productos indicados
+    @Query("SELECT p.id, f.id FROM Product p JOIN p.features f WHERE p.id IN :productIds")
+    List<Object[]> findFeatureIdsByProductIds(@Param("productIds") Collection<Long> productIds);
+    
+    // Pares (productId, categoryId) de todo el catálogo; categoryId es null si no tiene categoría
+    @Query("SELECT p.id, c.id FROM Product p LEFT JOIN p.category c")
+    List<Object[]> findCategoryIds();
+
+    // Campos de texto del índice de búsqueda: (productId, nombre, descripción, categoryId, nombre de categoría)
+    @Query("SELECT p.id, p.name, p.description, c.id, c.name FROM Product p LEFT JOIN p.category c")
+    List<Object[]> findSearchFields();
+
+    @Query("SELECT p.id, p.name, p.description, c.id, c.name FROM Product p LEFT JOIN p.category c WHERE p.id IN :ids")
+    List<Object[]> findSearchFieldsByIds(@Param("ids") Collection<Long> ids);
+
+    // Características del índice de búsqueda: (productId, featureId, nombre de característica)
+    @Query("SELECT p.id, f.id, f.name FROM Product p JOIN p.features f")
+    List<Object[]> findSearchFeatures();
+
+    @Query("SELECT p.id, f.id, f.name FROM Product p JOIN p.features f WHERE p.id IN :ids")
+    List<Object[]> findSearchFeaturesByIds(@Param("ids") Collection<Long> ids);
+
+    // Resúmenes por ID, en cualquier orden (el llamador fija el orden)
+    @Query("SELECT new com.autobooking.api.dto.ProductSummary(p.id, p.name, p.price, c.name, " +
+           "   (SELECT i FROM Product pi JOIN pi.images i WHERE pi = p AND INDEX(i) = 0)) " +
+           "FROM Product p LEFT JOIN p.category c " +
+           "WHERE p.id IN :ids")
+    List<ProductSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    // Productos para listados por ID, en cualquier orden (el llamador fija el orden)
+    @EntityGraph(Product.GRAPH_LISTING)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids")
+    List<Product> findListingByIds(@Param("ids") Collection<Long> ids);
+
+    // Página por cursor: productos con ID mayor que after, en orden de ID (el tamaño lo fija pageable)
+    @EntityGraph(Product.GRAPH_LISTING)
+    @Query("SELECT p FROM Product p WHERE p.id > :after ORDER BY p.id")
+    List<Product> findPageAfter(@Param("after") Long after, Pageable pageable);
+    
+    // Todos los favoritos de un usuario, sin cargar el usuario
+    @EntityGraph(Product.GRAPH_LISTING)
+    @Query("SELECT p FROM User u JOIN u.favorites p WHERE u.id = :userId ORDER BY p.id")
+    List<Product> findFavorites(@Param("userId") Long userId);
+    
+    // Favoritos de un usuario por cursor, sin cargar la colección completa del usuario
+    @Query("SELECT p FROM User u JOIN u.favorites p WHERE u.id = :userId AND p.id > :after ORDER BY p.id")
+    List<Product> findFavoritesPageAfter(@Param("userId") Long userId, @Param("after") Long after, Pageable pageable);
+    
+    // Todos los resúmenes de producto como stream, leídos por bloques del cursor de la base de datos;
+    // debe consumirse dentro de una transacción y cerrarse al terminar
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.autobooking.api.dto.ProductSummary(p.id, p.name, p.price, c.name, " +
+           "   (SELECT i FROM Product pi JOIN pi.images i WHERE pi = p AND INDEX(i) = 0)) " +
+           "FROM Product p LEFT JOIN p.category c " +
+           "ORDER BY p.id")
+    Stream<ProductSummary> streamSummaries();
+    
+    // Quita la categoría de todos sus productos con una sola sentencia UPDATE. Hibernate invalida
+    // la región catalog-product y las consultas cacheadas sobre products; el contexto de
+    // persistencia se vacía antes y se limpia después para no dejar entidades desactualizadas
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.category = NULL WHERE p.category.id = :categoryId")
+    int clearCategory(@Param("categoryId") Long categoryId);
+    
+    // Quita una característica de todos los productos con un solo DELETE sobre la tabla de unión.
+    // Hibernate invalida las colecciones cacheadas según la entidad de sus elementos, así que los
+    // espacios son features (colección Product.features y región catalog-feature) y
+    // product_features (consultas cacheadas sobre la tabla de unión); sin ellos se invalidaría toda
+    // la caché y con solo product_features las colecciones seguirían con la característica borrada
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "features"),
+        @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "product_features")
+    })
+    @Query(value = "DELETE FROM product_features WHERE feature_id = :featureId", nativeQuery = true)
+    int removeFeatureFromAllProducts(@Param("featureId") Long featureId);
+}
@@ -1,12 +1,37 @@
 package com.autobooking.api.repository;
 
 import com.autobooking.api.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
-} 
\ No newline at end of file
+    
+    // Favoritos directamente sobre la tabla de unión, sin cargar el usuario ni sus productos.
+    // El espacio de consulta user_favorites limita la invalidación de la caché de Hibernate a esa tabla
+    @Query(value = "SELECT product_id FROM user_favorites WHERE user_id = :userId", nativeQuery = true)
+    List<Long> findFavoriteProductIds(@Param("userId") Long userId);
+    
+    // Devuelve 1 si se añadió y 0 si ya era favorito
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_favorites"))
+    @Query(value = "INSERT INTO user_favorites (user_id, product_id) VALUES (:userId, :productId) " +
+                   "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertFavorite(@Param("userId") Long userId, @Param("productId") Long productId);
+    
+    // Devuelve 1 si se eliminó y 0 si no era favorito
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_favorites"))
+    @Query(value = "DELETE FROM user_favorites WHERE user_id = :userId AND product_id = :productId", nativeQuery = true)
+    int deleteFavorite(@Param("userId") Long userId, @Param("productId") Long productId);
+}
@@ -0,0 +1,48 @@
+package com.autobooking.api.security;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Usuario autenticado que se guarda como principal en el contexto de seguridad.
+ *
+ * Se construye a partir de las claims del token JWT (id, email e isAdmin, que JwtUtil incluye al
+ * generarlo), por lo que no hace falta consultar la tabla de usuarios en cada petición.
+ */
+public class AuthenticatedUser {
+
+    private final Long id;
+    private final String email;
+    private final boolean admin;
+
+    public AuthenticatedUser(Long id, String email, boolean admin) {
+        this.id = id;
+        this.email = email;
+        this.admin = admin;
+    }
+
+    // Crea el principal a partir de las claims de un token ya verificado
+    public static AuthenticatedUser fromClaims(Claims claims) {
+        Object id = claims.get("id");
+        return new AuthenticatedUser(
+                id instanceof Number ? ((Number) id).longValue() : null,
+                claims.getSubject(),
+                Boolean.TRUE.equals(claims.get("isAdmin")));
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public boolean isAdmin() {
+        return admin;
+    }
+
+    @Override
+    public String toString() {
+        return "AuthenticatedUser{id=" + id + ", email=" + email + ", admin=" + admin + "}";
+    }
+}
@@ -6,11 +6,14 @@ import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -21,7 +24,10 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtRequestFilter extends OncePerRequestFilter {
@@ -32,6 +38,18 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private VerifiedTokenCache tokenCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${jwt.claims-only:true}")
+    private boolean claimsOnly;
+
+    // Un Timer por resultado (none, rejected, authenticated), registrado una sola vez
+    private final Map<String, Timer> filterTimers = new ConcurrentHashMap<>();
+
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         String path = request.getRequestURI();
@@ -40,7 +58,8 @@ public class JwtRequestFilter extends OncePerRequestFilter {
                (request.getMethod().equals("GET") && 
                 (path.startsWith("/api/products") || 
                  path.startsWith("/api/categories") || 
-                 path.startsWith("/api/features")));
+                 path.startsWith("/api/features") || 
+                 path.startsWith("/api/images")));
     }
 
     @Override
@@ -48,38 +67,31 @@ public class JwtRequestFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
 
         final String authorizationHeader = request.getHeader("Authorization");
-
-        String email = null;
-        String jwt = null;
-        Claims claims = null;
+        long started = System.nanoTime();
+        String result = "none";
 
         try {
-            if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-                jwt = authorizationHeader.substring(7);
-                claims = jwtUtil.validateToken(jwt);
-                email = jwtUtil.getEmailFromToken(jwt);
-            }
+            if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                    && SecurityContextHolder.getContext().getAuthentication() == null) {
+                String jwt = authorizationHeader.substring(7);
+                result = "rejected";
+                AuthenticatedUser principal = authenticate(jwt);
 
-            // Si encontramos un token válido con email y no hay autenticación actual
-            if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                Optional<User> userOptional = userRepository.findByEmail(email);
-                
-                if (userOptional.isPresent()) {
-                    User user = userOptional.get();
-                    
+                if (principal != null) {
                     // Crear las autoridades basadas en el rol de usuario
                     List<SimpleGrantedAuthority> authorities = Collections.singletonList(
-                            new SimpleGrantedAuthority(user.getIsAdmin() ? "ROLE_ADMIN" : "ROLE_USER")
+                            new SimpleGrantedAuthority(principal.isAdmin() ? "ROLE_ADMIN" : "ROLE_USER")
                     );
                     
                     // Crear objeto de autenticación
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            user, null, authorities);
+                            principal, null, authorities);
                     
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     
                     // Establecer la autenticación en el contexto de seguridad
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+                    result = "authenticated";
                 }
             }
         } catch (ExpiredJwtException e) {
@@ -90,6 +102,47 @@ public class JwtRequestFilter extends OncePerRequestFilter {
             logger.error("Error al procesar el token: " + e.getMessage());
         }
 
+        // Solo el trabajo del filtro (verificación del token), sin el resto de la cadena
+        filterTimers.computeIfAbsent(result, tag -> Timer.builder("autobooking.jwt.filter")
+                        .description("Duración de la autenticación por token JWT")
+                        .tag("result", tag)
+                        .register(meterRegistry))
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
         chain.doFilter(request, response);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Verifica el token (una sola vez por petición) y construye el principal.
+     *
+     * En modo claims-only (jwt.claims-only=true, por defecto) el principal sale de las claims del
+     * token, sin consultar la base de datos; un cambio de rol o una baja del usuario se aplican
+     * al vencer el token. Con jwt.claims-only=false se lee el usuario de la base de datos en cada
+     * petición como antes. En modo claims-only los tokens verificados se guardan además en
+     * VerifiedTokenCache hasta su vencimiento.
+     */
+    private AuthenticatedUser authenticate(String jwt) {
+        if (claimsOnly) {
+            AuthenticatedUser cached = tokenCache.get(jwt);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        Claims claims = jwtUtil.validateToken(jwt);
+        if (!claimsOnly) {
+            Optional<User> userOptional = userRepository.findByEmail(claims.getSubject());
+            if (userOptional.isEmpty()) {
+                return null;
+            }
+            User user = userOptional.get();
+            return new AuthenticatedUser(user.getId(), user.getEmail(), Boolean.TRUE.equals(user.getIsAdmin()));
+        }
+
+        AuthenticatedUser principal = AuthenticatedUser.fromClaims(claims);
+        if (claims.getExpiration() != null) {
+            tokenCache.put(jwt, principal, claims.getExpiration().getTime());
+        }
+        return principal;
+    }
+}
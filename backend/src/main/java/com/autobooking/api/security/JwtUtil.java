@@ -2,9 +2,11 @@ package com.autobooking.api.security;
 
 import com.autobooking.api.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -24,6 +26,18 @@ public class JwtUtil {
     // Tiempo de expiración del token - 24 horas
     private static final long JWT_TOKEN_VALIDITY = 24 * 60 * 60 * 1000;
     
+    // Clave HMAC y parser construidos una sola vez; ambos son inmutables y seguros entre hilos
+    private Key signingKey;
+    private JwtParser parser;
+    
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+    
     // Genera un token para un usuario
     public String generateToken(User user) {
         Map<String, Object> claims = new HashMap<>();
@@ -39,25 +53,18 @@ public class JwtUtil {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + JWT_TOKEN_VALIDITY);
         
-        Key key = Keys.hmacShaKeyFor(secretKey.getBytes());
-        
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(key, SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
     
     // Valida el token y retorna los claims
     public Claims validateToken(String token) {
-        Key key = Keys.hmacShaKeyFor(secretKey.getBytes());
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
     
     /**
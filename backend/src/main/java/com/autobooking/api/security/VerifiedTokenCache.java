@@ -0,0 +1,67 @@
+package com.autobooking.api.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caché acotada de tokens JWT ya verificados, para no recalcular la firma HMAC cuando el mismo
+ * token llega en peticiones sucesivas.
+ *
+ * Cada entrada vence junto con el token. Al alcanzar el tamaño máximo se descartan primero las
+ * entradas vencidas y, si no alcanza, la caché se vacía por completo. Con jwt.cache.max-size=0
+ * queda desactivada.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final int maxSize;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public VerifiedTokenCache(@Value("${jwt.cache.max-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Devuelve el principal asociado al token si está en caché y no ha vencido, o null.
+     */
+    public AuthenticatedUser get(String token) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        Entry entry = entries.get(token);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis <= System.currentTimeMillis()) {
+            entries.remove(token, entry);
+            return null;
+        }
+        return entry.principal;
+    }
+
+    public void put(String token, AuthenticatedUser principal, long expiresAtMillis) {
+        if (maxSize <= 0) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            long now = System.currentTimeMillis();
+            entries.values().removeIf(entry -> entry.expiresAtMillis <= now);
+            if (entries.size() >= maxSize) {
+                entries.clear();
+            }
+        }
+        entries.put(token, new Entry(principal, expiresAtMillis));
+    }
+
+    private static final class Entry {
+        private final AuthenticatedUser principal;
+        private final long expiresAtMillis;
+
+        private Entry(AuthenticatedUser principal, long expiresAtMillis) {
+            this.principal = principal;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
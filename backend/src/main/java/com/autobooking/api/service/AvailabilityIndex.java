@@ -0,0 +1,330 @@
+package com.autobooking.api.service;
+
+import com.autobooking.api.model.Booking;
+import com.autobooking.api.repository.BookingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice en memoria de las reservas activas (PENDING o CONFIRMED) de cada producto.
+ *
+ * Por producto se guarda un arreglo de intervalos [inicio, fin] ordenado por fecha de inicio,
+ * junto con el máximo acumulado de las fechas de fin. Así una consulta de solapamiento es una
+ * búsqueda binaria, O(log n), sin acceder a la base de datos. Los arreglos son inmutables y se
+ * reemplazan en cada cambio, de modo que las lecturas no necesitan bloqueos.
+ *
+ * Junto a los intervalos se mantiene un OccupancyCalendar (bitset de días por producto) que
+ * responde las consultas de rango dentro de su horizonte y las fechas ocupadas de un producto.
+ * Como el calendario se recalcula desde los intervalos, cancelar una reserva libera exactamente
+ * sus días aunque otra reserva activa comparta alguno.
+ *
+ * El índice se construye desde BookingRepository al arrancar la aplicación y BookingService lo
+ * mantiene al crear, cancelar o cambiar el estado de una reserva. Mientras no está listo,
+ * isReady() devuelve false y los llamadores deben consultar la base de datos.
+ */
+@Component
+public class AvailabilityIndex {
+
+    private final BookingRepository bookingRepository;
+
+    private final ConcurrentHashMap<Long, ProductIntervals> intervalsByProduct = new ConcurrentHashMap<>();
+
+    // Las actualizaciones toman el lock de lectura (pueden ir en paralelo entre sí);
+    // la reconstrucción toma el de escritura para no perder cambios concurrentes
+    private final ReentrantReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    private volatile OccupancyCalendar calendar = new OccupancyCalendar(OccupancyCalendar.originFor(LocalDate.now().toEpochDay()));
+
+    private volatile boolean ready = false;
+
+    @Autowired
+    public AvailabilityIndex(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    /**
+     * Reconstruye el índice completo a partir de las reservas activas en la base de datos.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.writeLock().lock();
+        try {
+            ready = false;
+            intervalsByProduct.clear();
+            List<Object[]> ranges = bookingRepository.findActiveBookingRanges();
+            for (Object[] range : ranges) {
+                long start = ((LocalDate) range[2]).toEpochDay();
+                long end = ((LocalDate) range[3]).toEpochDay();
+                intervalsByProduct.compute((Long) range[1], (id, current) ->
+                        (current == null ? ProductIntervals.EMPTY : current).with((Long) range[0], start, end));
+            }
+            calendar = buildCalendar(OccupancyCalendar.originFor(LocalDate.now().toEpochDay()));
+            ready = true;
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indica si el índice ya fue cargado y puede responder consultas.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Verifica si alguna reserva activa del producto se solapa con el rango [startDate, endDate].
+     *
+     * @param productId ID del producto
+     * @param startDate Fecha de inicio (inclusive)
+     * @param endDate Fecha de fin (inclusive)
+     * @return true si existe solapamiento, false si el producto está libre en todo el rango
+     */
+    public boolean hasOverlap(Long productId, LocalDate startDate, LocalDate endDate) {
+        ProductIntervals intervals = intervalsByProduct.get(productId);
+        return intervals != null && intervals.overlaps(startDate.toEpochDay(), endDate.toEpochDay());
+    }
+
+    /**
+     * Verifica que el producto esté libre todos los días de [startDate, endDate]. Dentro del
+     * horizonte del calendario se resuelve con el bitset; fuera de él, con los intervalos.
+     */
+    public boolean isFree(Long productId, LocalDate startDate, LocalDate endDate) {
+        long start = startDate.toEpochDay();
+        long end = endDate.toEpochDay();
+        OccupancyCalendar current = currentCalendar();
+        if (current.covers(start, end)) {
+            return current.isFree(productId, start, end);
+        }
+        return !hasOverlap(productId, startDate, endDate);
+    }
+
+    /**
+     * Rangos de fechas ocupadas del producto desde fromDate en adelante, unificando reservas
+     * contiguas. Cada elemento es un par {inicio, fin} (inclusive).
+     */
+    public List<LocalDate[]> getUnavailableRanges(Long productId, LocalDate fromDate) {
+        OccupancyCalendar current = currentCalendar();
+        long from = fromDate.toEpochDay();
+        List<long[]> ranges = current.busyRanges(productId, from);
+
+        // Tramos de las reservas que terminan más allá del horizonte del calendario, ordenados y
+        // unidos con los días ocupados del calendario: una reserva que cruza el final del
+        // horizonte devuelve un solo rango
+        long horizonEnd = current.getOriginDay() + OccupancyCalendar.HORIZON_DAYS - 1;
+        ProductIntervals intervals = intervalsByProduct.get(productId);
+        if (intervals != null) {
+            List<long[]> beyond = new ArrayList<>();
+            for (int i = 0; i < intervals.size(); i++) {
+                if (intervals.endAt(i) > horizonEnd && intervals.endAt(i) >= from) {
+                    beyond.add(new long[] {Math.max(intervals.startAt(i), Math.max(horizonEnd + 1, from)), intervals.endAt(i)});
+                }
+            }
+            beyond.sort(Comparator.comparingLong(range -> range[0]));
+            for (long[] range : beyond) {
+                long[] last = ranges.isEmpty() ? null : ranges.get(ranges.size() - 1);
+                if (last != null && range[0] <= last[1] + 1) {
+                    last[1] = Math.max(last[1], range[1]);
+                } else {
+                    ranges.add(range);
+                }
+            }
+        }
+
+        List<LocalDate[]> result = new ArrayList<>(ranges.size());
+        for (long[] range : ranges) {
+            result.add(new LocalDate[] {LocalDate.ofEpochDay(range[0]), LocalDate.ofEpochDay(range[1])});
+        }
+        return result;
+    }
+
+    /**
+     * Refleja en el índice el estado actual de una reserva: si está activa se agrega (o se
+     * reemplaza su rango) y en caso contrario se elimina.
+     */
+    public void apply(Booking booking) {
+        Long productId = booking.getProduct().getId();
+        rebuildLock.readLock().lock();
+        try {
+            if (isActive(booking.getStatus())) {
+                addInterval(productId, booking.getId(), booking.getStartDate(), booking.getEndDate());
+            } else {
+                intervalsByProduct.computeIfPresent(productId, (id, current) -> {
+                    ProductIntervals updated = current.without(booking.getId());
+                    calendar.update(id, updated);
+                    return updated;
+                });
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Igual que apply(), pero si hay una transacción en curso espera a que se confirme, para que
+     * el índice nunca refleje reservas que terminaron en rollback.
+     */
+    public void applyAfterCommit(Booking booking) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(booking);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(booking);
+            }
+        });
+    }
+
+    private void addInterval(Long productId, Long bookingId, LocalDate startDate, LocalDate endDate) {
+        long start = startDate.toEpochDay();
+        long end = endDate.toEpochDay();
+        intervalsByProduct.compute(productId, (id, current) -> {
+            ProductIntervals updated = (current == null ? ProductIntervals.EMPTY : current).with(bookingId, start, end);
+            calendar.update(id, updated);
+            return updated;
+        });
+    }
+
+    // Devuelve el calendario vigente; si su origen quedó atrás, lo reconstruye desde los intervalos
+    private OccupancyCalendar currentCalendar() {
+        long origin = OccupancyCalendar.originFor(LocalDate.now().toEpochDay());
+        OccupancyCalendar current = calendar;
+        if (current.getOriginDay() == origin) {
+            return current;
+        }
+        rebuildLock.writeLock().lock();
+        try {
+            if (calendar.getOriginDay() != origin) {
+                calendar = buildCalendar(origin);
+            }
+            return calendar;
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    private OccupancyCalendar buildCalendar(long origin) {
+        OccupancyCalendar rebuilt = new OccupancyCalendar(origin);
+        intervalsByProduct.forEach(rebuilt::update);
+        return rebuilt;
+    }
+
+    private static boolean isActive(Booking.BookingStatus status) {
+        return status == Booking.BookingStatus.PENDING || status == Booking.BookingStatus.CONFIRMED;
+    }
+
+    /**
+     * Intervalos de un producto ordenados por inicio. maxEnds[i] es el mayor fin entre los
+     * intervalos 0..i, lo que permite responder correctamente aunque existan solapamientos
+     * previos entre reservas.
+     */
+    static final class ProductIntervals {
+
+        static final ProductIntervals EMPTY = new ProductIntervals(new long[0], new long[0], new long[0]);
+
+        private final long[] bookingIds;
+        private final long[] starts;
+        private final long[] ends;
+        private final long[] maxEnds;
+
+        private ProductIntervals(long[] bookingIds, long[] starts, long[] ends) {
+            this.bookingIds = bookingIds;
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnds = new long[ends.length];
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < ends.length; i++) {
+                max = Math.max(max, ends[i]);
+                maxEnds[i] = max;
+            }
+        }
+
+        int size() {
+            return starts.length;
+        }
+
+        long startAt(int i) {
+            return starts[i];
+        }
+
+        long endAt(int i) {
+            return ends[i];
+        }
+
+        boolean overlaps(long start, long end) {
+            // Último intervalo que comienza en o antes del fin solicitado
+            int idx = lastStartAtOrBefore(end);
+            return idx >= 0 && maxEnds[idx] >= start;
+        }
+
+        ProductIntervals with(long bookingId, long start, long end) {
+            ProductIntervals base = without(bookingId);
+            int n = base.starts.length;
+            int pos = base.lastStartAtOrBefore(start) + 1;
+
+            long[] newIds = new long[n + 1];
+            long[] newStarts = new long[n + 1];
+            long[] newEnds = new long[n + 1];
+            System.arraycopy(base.bookingIds, 0, newIds, 0, pos);
+            System.arraycopy(base.starts, 0, newStarts, 0, pos);
+            System.arraycopy(base.ends, 0, newEnds, 0, pos);
+            newIds[pos] = bookingId;
+            newStarts[pos] = start;
+            newEnds[pos] = end;
+            System.arraycopy(base.bookingIds, pos, newIds, pos + 1, n - pos);
+            System.arraycopy(base.starts, pos, newStarts, pos + 1, n - pos);
+            System.arraycopy(base.ends, pos, newEnds, pos + 1, n - pos);
+            return new ProductIntervals(newIds, newStarts, newEnds);
+        }
+
+        ProductIntervals without(long bookingId) {
+            int idx = -1;
+            for (int i = 0; i < bookingIds.length; i++) {
+                if (bookingIds[i] == bookingId) {
+                    idx = i;
+                    break;
+                }
+            }
+            if (idx < 0) {
+                return this;
+            }
+            return new ProductIntervals(remove(bookingIds, idx), remove(starts, idx), remove(ends, idx));
+        }
+
+        private int lastStartAtOrBefore(long day) {
+            int low = 0;
+            int high = starts.length - 1;
+            int result = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] <= day) {
+                    result = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return result;
+        }
+
+        private static long[] remove(long[] values, int idx) {
+            long[] result = Arrays.copyOf(values, values.length - 1);
+            System.arraycopy(values, idx + 1, result, idx, values.length - idx - 1);
+            return result;
+        }
+    }
+}
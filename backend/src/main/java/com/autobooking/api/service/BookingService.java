@@ -1,37 +1,94 @@
 package com.autobooking.api.service;
 
+import com.autobooking.api.dto.BookingExportRow;
+import com.autobooking.api.dto.BookingItem;
+import com.autobooking.api.dto.KeysetPage;
 import com.autobooking.api.model.Booking;
 import com.autobooking.api.model.Product;
 import com.autobooking.api.model.User;
 import com.autobooking.api.repository.BookingRepository;
 import com.autobooking.api.repository.ProductRepository;
 import com.autobooking.api.repository.UserRepository;
+import com.autobooking.api.util.LogSampler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 public class BookingService {
 
+    private static final Logger logger = LoggerFactory.getLogger(BookingService.class);
+    private static final int MAX_BATCH_SIZE = 50;
+    // Límites de la exportación cuando no se indica desde o hasta
+    private static final LocalDate EXPORT_MIN_DATE = LocalDate.of(1900, 1, 1);
+    private static final LocalDate EXPORT_MAX_DATE = LocalDate.of(9999, 12, 31);
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final ProductLockStripes productLocks;
+    private final CatalogVersion catalogVersion;
+    private final PopularityRanking popularityRanking;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Timer availabilityIndexTimer;
+    private final Timer availabilityDatabaseTimer;
+    private final LogSampler availabilityLogSampler;
+    // Timers de recordOutcome por métrica y resultado, registrados una sola vez
+    private final Map<String, Timer> outcomeTimers = new ConcurrentHashMap<>();
 
     @Autowired
     public BookingService(
             BookingRepository bookingRepository,
             UserRepository userRepository,
-            ProductRepository productRepository) {
+            ProductRepository productRepository,
+            AvailabilityIndex availabilityIndex,
+            ProductLockStripes productLocks,
+            CatalogVersion catalogVersion,
+            PopularityRanking popularityRanking,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.logging.sample-rate.availability:1.0}") double availabilitySampleRate) {
         this.bookingRepository = bookingRepository;
         this.userRepository = userRepository;
         this.productRepository = productRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.productLocks = productLocks;
+        this.catalogVersion = catalogVersion;
+        this.popularityRanking = popularityRanking;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.availabilityIndexTimer = availabilityTimer(meterRegistry, "index");
+        this.availabilityDatabaseTimer = availabilityTimer(meterRegistry, "database");
+        this.availabilityLogSampler = new LogSampler(availabilitySampleRate);
     }
 
     public List<Booking> getAllBookings() {
@@ -46,14 +103,72 @@ public class BookingService {
         return bookingRepository.findByUserId(userId);
     }
 
+    /**
+     * Página de todas las reservas ordenadas por ID a partir del cursor.
+     */
+    public KeysetPage<Booking> getBookingsPage(Long after, Integer limit) {
+        int size = KeysetPage.normalizeLimit(limit);
+        List<Booking> rows = bookingRepository.findPageAfter(after == null ? 0L : after, PageRequest.ofSize(size + 1));
+        return KeysetPage.of(rows, size, Booking::getId);
+    }
+
+    /**
+     * Página de las reservas de un usuario ordenadas por ID a partir del cursor.
+     */
+    public KeysetPage<Booking> getBookingsByUserPage(Long userId, Long after, Integer limit) {
+        int size = KeysetPage.normalizeLimit(limit);
+        List<Booking> rows = bookingRepository.findByUserIdPageAfter(userId, after == null ? 0L : after,
+                PageRequest.ofSize(size + 1));
+        return KeysetPage.of(rows, size, Booking::getId);
+    }
+
+    /**
+     * Recorre las reservas que tocan el intervalo [from, to] con alguno de los estados indicados,
+     * en orden de ID. Las filas se leen del cursor de la base de datos por bloques y se entregan
+     * al consumidor a medida que llegan, sin cargar entidades ni la lista completa en memoria.
+     * 
+     * @param from Primer día del intervalo (sin límite si es null)
+     * @param to Último día del intervalo (sin límite si es null)
+     * @param statuses Estados a incluir (todos si es null o está vacío)
+     * @param consumer Acción que recibe cada fila
+     */
+    @Transactional(readOnly = true)
+    public void forEachExportRow(LocalDate from, LocalDate to, Collection<Booking.BookingStatus> statuses,
+                                 Consumer<BookingExportRow> consumer) {
+        // Se usan fechas extremas en lugar de parámetros nulos para que la consulta sea siempre la misma
+        LocalDate start = from == null ? EXPORT_MIN_DATE : from;
+        LocalDate end = to == null ? EXPORT_MAX_DATE : to;
+        Collection<Booking.BookingStatus> included = statuses == null || statuses.isEmpty()
+                ? EnumSet.allOf(Booking.BookingStatus.class)
+                : statuses;
+        try (Stream<BookingExportRow> rows = bookingRepository.streamForExport(start, end, included)) {
+            rows.forEach(consumer);
+        }
+    }
+
     public List<Booking> getBookingsByProduct(Long productId) {
         return bookingRepository.findByProductId(productId);
     }
 
-    @Transactional
+    /**
+     * Crea una reserva verificando la disponibilidad sin carreras entre solicitudes concurrentes.
+     * 
+     * Las reservas de un mismo producto se serializan con un lock en proceso (por stripes, así
+     * productos distintos reservan en paralelo) que abarca la transacción completa, y además con
+     * un bloqueo de la fila del producto (SELECT ... FOR UPDATE) que protege frente a otras
+     * instancias de la aplicación. Tras tomar ese bloqueo la verificación contra la base de
+     * datos es definitiva.
+     */
     public Booking createBooking(Long userId, Long productId, LocalDate startDate, LocalDate endDate) {
-        System.out.println("DEBUG - Creando reserva para producto: " + productId + 
-                ", usuario: " + userId + ", desde: " + startDate + ", hasta: " + endDate);
+        return recordOutcome("autobooking.booking.create", "Duración y resultado de la creación de reservas",
+                () -> doCreateBooking(userId, productId, startDate, endDate));
+    }
+
+    private Booking doCreateBooking(Long userId, Long productId, LocalDate startDate, LocalDate endDate) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("booking.create productId={} userId={} startDate={} endDate={}",
+                    productId, userId, startDate, endDate);
+        }
         
         // Validar que las fechas son correctas
         if (startDate.isAfter(endDate)) {
@@ -64,11 +179,23 @@ public class BookingService {
             throw new IllegalArgumentException("No se pueden hacer reservas con fechas pasadas");
         }
 
-        // Buscar usuario y producto
+        // Rechazo rápido sin tomar locks si el índice ya muestra un solapamiento
+        if (availabilityIndex.isReady() && !availabilityIndex.isFree(productId, startDate, endDate)) {
+            logger.debug("booking.conflict productId={} startDate={} endDate={} source=index", productId, startDate, endDate);
+            throw new BookingConflictException();
+        }
+
+        return productLocks.withLock(productId, () -> transactionTemplate.execute(status ->
+                admitBooking(userId, productId, startDate, endDate)));
+    }
+
+    // Debe ejecutarse dentro de una transacción y con el lock del producto tomado
+    private Booking admitBooking(Long userId, Long productId, LocalDate startDate, LocalDate endDate) {
+        // Buscar usuario y producto (bloqueando la fila del producto)
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NoSuchElementException("Usuario no encontrado"));
         
-        Product product = productRepository.findById(productId)
+        Product product = productRepository.findByIdForUpdate(productId)
                 .orElseThrow(() -> new NoSuchElementException("Producto no encontrado"));
 
         // Validar que el producto tiene un precio válido
@@ -76,13 +203,12 @@ public class BookingService {
             throw new IllegalStateException("El producto no tiene un precio definido. Producto ID: " + productId);
         }
 
-        // Verificar si el producto está disponible para las fechas solicitadas
-        System.out.println("DEBUG - Verificando disponibilidad...");
-        if (!isProductAvailable(productId, startDate, endDate)) {
-            System.out.println("DEBUG - Producto NO disponible para las fechas solicitadas");
-            throw new IllegalStateException("Ya existe una reserva para este producto en las fechas seleccionadas");
+        // Verificar si el producto está disponible para las fechas solicitadas; con la fila
+        // bloqueada se consulta la base de datos, que también ve reservas de otras instancias
+        if (bookingRepository.existsOverlappingBooking(productId, startDate, endDate)) {
+            logger.debug("booking.conflict productId={} startDate={} endDate={} source=database", productId, startDate, endDate);
+            throw new BookingConflictException();
         }
-        System.out.println("DEBUG - Producto disponible para las fechas solicitadas");
 
         // Calcular el número de días
         long days = ChronoUnit.DAYS.between(startDate, endDate) + 1;
@@ -100,9 +226,162 @@ public class BookingService {
         booking.setStatus(Booking.BookingStatus.PENDING);
         booking.setCreatedAt(LocalDate.now());
         
-        System.out.println("DEBUG - Reserva creada: " + booking);
+        Booking savedBooking = bookingRepository.save(booking);
+        availabilityIndex.applyAfterCommit(savedBooking);
+        catalogVersion.availabilityChanged(productId);
+        popularityRanking.bookingCreated(productId);
+        logger.info("booking.created bookingId={} productId={} userId={} startDate={} endDate={}",
+                savedBooking.getId(), productId, userId, startDate, endDate);
+        return savedBooking;
+    }
+
+    /**
+     * Crea todas las reservas de un lote para un usuario o ninguna.
+     * 
+     * Las fechas y los solapamientos dentro del propio lote se validan antes de tomar locks. Luego,
+     * con los locks de todos los productos y sus filas bloqueadas (en orden de ID, para no
+     * interbloquearse con otros lotes), la disponibilidad de todas las reservas se verifica con
+     * una única consulta de rangos. Las reservas se insertan en lotes JDBC al confirmar la
+     * transacción; si alguna falla, no se guarda ninguna.
+     * 
+     * @throws IllegalArgumentException si el lote está vacío, es demasiado grande o tiene fechas inválidas
+     * @throws IllegalStateException si alguna reserva se solapa con una existente
+     * @throws NoSuchElementException si el usuario o algún producto no existen
+     */
+    public List<Booking> createBookings(Long userId, List<BookingItem> items) {
+        return recordOutcome("autobooking.booking.batch", "Duración y resultado de la creación de lotes de reservas",
+                () -> doCreateBookings(userId, items));
+    }
+
+    private List<Booking> doCreateBookings(Long userId, List<BookingItem> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("El lote debe contener al menos una reserva");
+        }
+        if (items.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("El lote no puede tener más de " + MAX_BATCH_SIZE + " reservas");
+        }
+        
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < items.size(); i++) {
+            BookingItem item = items.get(i);
+            if (item.getProductId() == null || item.getStartDate() == null || item.getEndDate() == null) {
+                throw new IllegalArgumentException("Reserva " + (i + 1) + ": producto y fechas son obligatorios");
+            }
+            if (item.getStartDate().isAfter(item.getEndDate())) {
+                throw new IllegalArgumentException("Reserva " + (i + 1) + ": la fecha de inicio debe ser anterior a la fecha final");
+            }
+            if (item.getStartDate().isBefore(today)) {
+                throw new IllegalArgumentException("Reserva " + (i + 1) + ": no se pueden hacer reservas con fechas pasadas");
+            }
+            // Dos reservas del mismo lote no pueden ocupar el mismo auto en las mismas fechas
+            for (int j = 0; j < i; j++) {
+                BookingItem other = items.get(j);
+                if (other.getProductId().equals(item.getProductId())
+                        && other.overlaps(item.getStartDate(), item.getEndDate())) {
+                    throw new IllegalArgumentException("Las reservas " + (j + 1) + " y " + (i + 1) + " del lote se solapan");
+                }
+            }
+        }
+        
+        // Rechazo rápido sin tomar locks si el índice ya muestra algún solapamiento
+        if (availabilityIndex.isReady()) {
+            List<Integer> conflicts = new ArrayList<>();
+            for (int i = 0; i < items.size(); i++) {
+                BookingItem item = items.get(i);
+                if (!availabilityIndex.isFree(item.getProductId(), item.getStartDate(), item.getEndDate())) {
+                    conflicts.add(i + 1);
+                }
+            }
+            if (!conflicts.isEmpty()) {
+                logger.debug("booking.batch.conflict userId={} items={} source=index", userId, conflicts);
+                throw new BookingConflictException(batchConflictMessage(conflicts));
+            }
+        }
+        
+        Set<Long> productIds = new TreeSet<>();
+        for (BookingItem item : items) {
+            productIds.add(item.getProductId());
+        }
+        return productLocks.withLocks(productIds, () -> transactionTemplate.execute(status ->
+                admitBookings(userId, productIds, items)));
+    }
+
+    // Debe ejecutarse dentro de una transacción y con los locks de los productos tomados
+    private List<Booking> admitBookings(Long userId, Set<Long> productIds, List<BookingItem> items) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NoSuchElementException("Usuario no encontrado"));
+        
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllByIdForUpdate(productIds)) {
+            products.put(product.getId(), product);
+        }
+        for (Long productId : productIds) {
+            Product product = products.get(productId);
+            if (product == null) {
+                throw new NoSuchElementException("Producto no encontrado: " + productId);
+            }
+            if (product.getPrice() == null) {
+                throw new IllegalStateException("El producto no tiene un precio definido. Producto ID: " + productId);
+            }
+        }
         
-        return bookingRepository.save(booking);
+        // Una sola consulta con las reservas existentes de todos los productos en el periodo del lote
+        LocalDate from = items.get(0).getStartDate();
+        LocalDate to = items.get(0).getEndDate();
+        for (BookingItem item : items) {
+            from = item.getStartDate().isBefore(from) ? item.getStartDate() : from;
+            to = item.getEndDate().isAfter(to) ? item.getEndDate() : to;
+        }
+        Map<Long, List<LocalDate[]>> existing = new HashMap<>();
+        for (Object[] row : bookingRepository.findRangesForProducts(productIds, from, to)) {
+            existing.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                    .add(new LocalDate[] {(LocalDate) row[1], (LocalDate) row[2]});
+        }
+        List<Integer> conflicts = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            BookingItem item = items.get(i);
+            for (LocalDate[] range : existing.getOrDefault(item.getProductId(), List.of())) {
+                if (item.overlaps(range[0], range[1])) {
+                    conflicts.add(i + 1);
+                    break;
+                }
+            }
+        }
+        if (!conflicts.isEmpty()) {
+            logger.debug("booking.batch.conflict userId={} items={} source=database", userId, conflicts);
+            throw new BookingConflictException(batchConflictMessage(conflicts));
+        }
+        
+        List<Booking> bookings = new ArrayList<>(items.size());
+        for (BookingItem item : items) {
+            Product product = products.get(item.getProductId());
+            long days = ChronoUnit.DAYS.between(item.getStartDate(), item.getEndDate()) + 1;
+            Booking booking = new Booking();
+            booking.setUser(user);
+            booking.setProduct(product);
+            booking.setStartDate(item.getStartDate());
+            booking.setEndDate(item.getEndDate());
+            booking.setTotalPrice(product.getPrice().multiply(BigDecimal.valueOf(days)));
+            booking.setStatus(Booking.BookingStatus.PENDING);
+            booking.setCreatedAt(LocalDate.now());
+            bookings.add(booking);
+        }
+        
+        // Los IDs salen de la secuencia, así que los INSERT se envían en lotes al confirmar
+        List<Booking> savedBookings = bookingRepository.saveAll(bookings);
+        for (Booking booking : savedBookings) {
+            availabilityIndex.applyAfterCommit(booking);
+            popularityRanking.bookingCreated(booking.getProduct().getId());
+        }
+        for (Long productId : productIds) {
+            catalogVersion.availabilityChanged(productId);
+        }
+        logger.info("booking.batch.created userId={} count={} products={}", userId, savedBookings.size(), productIds.size());
+        return savedBookings;
+    }
+
+    private static String batchConflictMessage(List<Integer> conflicts) {
+        return "Las reservas " + conflicts + " del lote se solapan con reservas existentes";
     }
 
     @Transactional
@@ -116,7 +395,10 @@ public class BookingService {
         }
         
         booking.setStatus(newStatus);
-        return bookingRepository.save(booking);
+        Booking savedBooking = bookingRepository.save(booking);
+        availabilityIndex.applyAfterCommit(savedBooking);
+        catalogVersion.availabilityChanged(savedBooking.getProduct().getId());
+        return savedBooking;
     }
 
     @Transactional
@@ -134,62 +416,98 @@ public class BookingService {
         }
         
         booking.setStatus(Booking.BookingStatus.CANCELLED);
-        bookingRepository.save(booking);
+        Booking savedBooking = bookingRepository.save(booking);
+        availabilityIndex.applyAfterCommit(savedBooking);
+        catalogVersion.availabilityChanged(savedBooking.getProduct().getId());
     }
 
     public boolean isProductAvailable(Long productId, LocalDate startDate, LocalDate endDate) {
-        System.out.println("DEBUG - Verificando disponibilidad para producto: " + productId +
-                " desde: " + startDate + " hasta: " + endDate);
-                
-        // Obtener todas las reservas activas para el producto
-        List<Booking> activeBookings = bookingRepository.findAllActiveBookingsForProduct(productId);
-        System.out.println("DEBUG - Reservas activas encontradas: " + activeBookings.size());
-        
-        // Verificar si alguna de las reservas se solapa con el rango solicitado
-        for (Booking booking : activeBookings) {
-            // Un solapamiento ocurre cuando:
-            // 1. La fecha de inicio o fin de la reserva existente está dentro del rango solicitado
-            // 2. El rango solicitado está completamente dentro de la reserva existente
-            // 3. La reserva existente está completamente dentro del rango solicitado
-            
-            // Verificar si hay solapamiento
-            boolean noOverlap = booking.getEndDate().isBefore(startDate) || booking.getStartDate().isAfter(endDate);
-            
-            if (!noOverlap) {
-                System.out.println("DEBUG - Solapamiento encontrado con reserva ID: " + booking.getId() + 
-                    ", " + booking.getStartDate() + " - " + booking.getEndDate() + 
-                    ", Estado: " + booking.getStatus());
-                System.out.println("DEBUG - Rango solicitado: " + startDate + " - " + endDate);
-                System.out.println("DEBUG - Detalles del solapamiento:");
-                System.out.println("  - ¿Inicio reserva dentro del rango? " + 
-                    (booking.getStartDate().compareTo(startDate) >= 0 && booking.getStartDate().compareTo(endDate) <= 0));
-                System.out.println("  - ¿Fin reserva dentro del rango? " + 
-                    (booking.getEndDate().compareTo(startDate) >= 0 && booking.getEndDate().compareTo(endDate) <= 0));
-                System.out.println("  - ¿Inicio solicitado dentro de reserva? " + 
-                    (startDate.compareTo(booking.getStartDate()) >= 0 && startDate.compareTo(booking.getEndDate()) <= 0));
-                System.out.println("  - ¿Fin solicitado dentro de reserva? " + 
-                    (endDate.compareTo(booking.getStartDate()) >= 0 && endDate.compareTo(booking.getEndDate()) <= 0));
-                
-                return false;
-            }
-        }
+        // Consultar el índice en memoria; solo se recurre a la base de datos mientras se carga
+        boolean fromIndex = availabilityIndex.isReady();
+        long started = System.nanoTime();
+        boolean available = fromIndex
+                ? availabilityIndex.isFree(productId, startDate, endDate)
+                : !bookingRepository.existsOverlappingBooking(productId, startDate, endDate);
+        (fromIndex ? availabilityIndexTimer : availabilityDatabaseTimer).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
         
-        System.out.println("DEBUG - No se encontraron solapamientos, producto disponible");
-        return true;
+        if (logger.isDebugEnabled() && availabilityLogSampler.sample()) {
+            logger.debug("availability.check productId={} startDate={} endDate={} available={} source={}",
+                    productId, startDate, endDate, available, fromIndex ? "index" : "database");
+        }
+        return available;
     }
 
     public List<Booking> getActiveBookingsForProduct(Long productId) {
-        System.out.println("DEBUG - Buscando reservas activas para producto ID: " + productId);
         List<Booking> bookings = bookingRepository.findAllActiveBookingsForProduct(productId);
-        System.out.println("DEBUG - Encontradas " + bookings.size() + " reservas activas");
-        
-        for (Booking booking : bookings) {
-            System.out.println("DEBUG - Reserva ID: " + booking.getId() + 
-                ", Estado: " + booking.getStatus() + 
-                ", Desde: " + booking.getStartDate() + 
-                ", Hasta: " + booking.getEndDate());
+        logger.debug("booking.active productId={} count={}", productId, bookings.size());
+        return bookings;
+    }
+
+    /**
+     * Obtiene los rangos de fechas ocupadas de un producto desde hoy en adelante. Se resuelve con
+     * el calendario de ocupación en memoria; mientras se carga, desde las reservas activas.
+     * 
+     * @param productId ID del producto
+     * @return Lista de pares {inicio, fin} de fechas no disponibles
+     */
+    public List<LocalDate[]> getUnavailableDateRanges(Long productId) {
+        LocalDate today = LocalDate.now();
+        if (availabilityIndex.isReady()) {
+            return availabilityIndex.getUnavailableRanges(productId, today);
         }
         
-        return bookings;
+        List<LocalDate[]> ranges = new ArrayList<>();
+        for (Booking booking : bookingRepository.findAllActiveBookingsForProduct(productId)) {
+            if (!booking.getEndDate().isBefore(today)) {
+                ranges.add(new LocalDate[] {booking.getStartDate(), booking.getEndDate()});
+            }
+        }
+        return ranges;
+    }
+
+    // Mide la operación con un Timer etiquetado por resultado: success, conflict, validation o error
+    private <T> T recordOutcome(String metric, String description, Supplier<T> action) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = action.get();
+            outcome = "success";
+            return result;
+        } catch (BookingConflictException e) {
+            outcome = "conflict";
+            throw e;
+        } catch (IllegalArgumentException | IllegalStateException | NoSuchElementException e) {
+            outcome = "validation";
+            throw e;
+        } finally {
+            String tag = outcome;
+            sample.stop(outcomeTimers.computeIfAbsent(metric + " " + tag, key -> Timer.builder(metric)
+                    .description(description)
+                    .tag("outcome", tag)
+                    .register(meterRegistry)));
+        }
+    }
+
+    private static Timer availabilityTimer(MeterRegistry meterRegistry, String source) {
+        return Timer.builder("autobooking.availability.check")
+                .description("Duración de la verificación de disponibilidad de un producto")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Solapamiento con una reserva existente; se distingue de los demás IllegalStateException
+     * solo para las métricas de resultados de autobooking.booking.create y autobooking.booking.batch.
+     */
+    private static final class BookingConflictException extends IllegalStateException {
+        private static final long serialVersionUID = 1L;
+
+        BookingConflictException() {
+            this("Ya existe una reserva para este producto en las fechas seleccionadas");
+        }
+
+        BookingConflictException(String message) {
+            super(message);
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,122 @@
+package com.autobooking.api.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Versiones de los datos de lectura frecuente, usadas como ETag de las respuestas GET para que
+ * el cliente revalide con If-None-Match y reciba 304 sin que se carguen ni serialicen entidades.
+ *
+ * Hay una versión para todo el catálogo (productos, categorías y características) y una por
+ * producto para su disponibilidad, guardadas en la tabla data_versions. Cada cambio incrementa la
+ * versión en la misma transacción que modifica los datos, así que todas las instancias ven la
+ * versión nueva en cuanto se confirma, venga el cambio de donde venga.
+ *
+ * Las respuestas leen la versión antes que los datos, de modo que un ETag puede quedar asociado a
+ * datos más nuevos que él (el cliente los vuelve a descargar en la siguiente petición) pero nunca a
+ * datos más antiguos. Hay dos casos en que la versión confirmada se adelanta a los datos servidos:
+ * <ul>
+ *   <li>Entre el commit y la actualización de los índices en memoria de esta instancia, que se
+ *   hace en afterCommit (AvailabilityIndex). Mientras un cambio local no termina, el ETag afectado
+ *   es null y la respuesta sale completa, sin ETag.</li>
+ *   <li>La disponibilidad se sirve del AvailabilityIndex de cada instancia, que no ve las reservas
+ *   hechas en otras; su ETag incluye además la época de arranque de la instancia, así que solo
+ *   coincide en la instancia que lo emitió y hasta que se reinicie.</li>
+ * </ul>
+ */
+@Component
+public class CatalogVersion {
+
+    private static final String CATALOG = "catalog";
+    private static final String AVAILABILITY_PREFIX = "availability-";
+
+    private static final String SELECT_VERSION = "SELECT version FROM data_versions WHERE name = ?";
+    private static final String INSERT_VERSION = "INSERT INTO data_versions (name, version) VALUES (?, 0) ON CONFLICT DO NOTHING";
+    private static final String INCREMENT_VERSION = "UPDATE data_versions SET version = version + 1 WHERE name = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long epoch = System.currentTimeMillis();
+
+    // Cambios de esta instancia por versión cuya transacción aún no terminó
+    private final ConcurrentHashMap<String, Integer> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CatalogVersion(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * ETag de las respuestas del catálogo, o null mientras esta instancia confirma un cambio.
+     */
+    public String catalogETag() {
+        Long version = read(CATALOG);
+        return version == null ? null : "\"c-" + version + "\"";
+    }
+
+    /**
+     * ETag de las fechas no disponibles de un producto, o null mientras esta instancia confirma una
+     * reserva del producto. Incluye la fecha de hoy porque la respuesta solo contiene rangos que
+     * terminan a partir de hoy.
+     */
+    public String availabilityETag(Long productId) {
+        Long version = read(AVAILABILITY_PREFIX + productId);
+        return version == null ? null
+                : "\"a-" + epoch + "-" + productId + "-" + version + "-" + LocalDate.now() + "\"";
+    }
+
+    /**
+     * Incrementa la versión del catálogo en la transacción actual (o en una propia si no hay).
+     * Debe llamarse antes de la primera escritura de la transacción: la fila de la versión queda
+     * bloqueada hasta el commit, y tomándola siempre primero los cambios del catálogo se serializan
+     * sin interbloquearse con los que tocan las mismas filas en otro orden.
+     */
+    public void catalogChanged() {
+        increment(CATALOG);
+    }
+
+    /**
+     * Incrementa la versión de la disponibilidad de un producto en la transacción actual (o en una
+     * propia si no hay).
+     */
+    public void availabilityChanged(Long productId) {
+        increment(AVAILABILITY_PREFIX + productId);
+    }
+
+    // La versión se lee antes de mirar los cambios en curso: si su commit ya se leyó, el cambio
+    // sigue registrado hasta que terminen los callbacks afterCommit de los índices en memoria
+    private Long read(String name) {
+        List<Long> versions = jdbcTemplate.queryForList(SELECT_VERSION, Long.class, name);
+        if (inFlight.containsKey(name)) {
+            return null;
+        }
+        return versions.isEmpty() ? 0L : versions.get(0);
+    }
+
+    private void increment(String name) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionTemplate.executeWithoutResult(status -> increment(name));
+            return;
+        }
+        inFlight.merge(name, 1, Integer::sum);
+        // afterCompletion corre después de los afterCommit de todas las sincronizaciones
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                inFlight.computeIfPresent(name, (key, count) -> count == 1 ? null : count - 1);
+            }
+        });
+        jdbcTemplate.update(INSERT_VERSION, name);
+        jdbcTemplate.update(INCREMENT_VERSION, name);
+    }
+}
@@ -1,12 +1,12 @@
 package com.autobooking.api.service;
 
 import com.autobooking.api.model.Category;
-import com.autobooking.api.model.Product;
 import com.autobooking.api.repository.CategoryRepository;
 import com.autobooking.api.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
@@ -17,13 +17,19 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final ProductRepository productRepository;
+    private final CatalogVersion catalogVersion;
+    private final ProductSearchIndex searchIndex;
 
     @Autowired
-    public CategoryService(CategoryRepository categoryRepository, ProductRepository productRepository) {
+    public CategoryService(CategoryRepository categoryRepository, ProductRepository productRepository,
+                           CatalogVersion catalogVersion, ProductSearchIndex searchIndex) {
         this.categoryRepository = categoryRepository;
         this.productRepository = productRepository;
+        this.catalogVersion = catalogVersion;
+        this.searchIndex = searchIndex;
     }
 
+    @Transactional
     public Category createCategory(String name) {
         // Validar que el nombre no esté vacío
         if (name == null || name.trim().isEmpty()) {
@@ -38,26 +44,26 @@ public class CategoryService {
 
         // Crear y guardar la nueva categoría
         Category category = new Category(name.trim());
-        return categoryRepository.save(category);
+        catalogVersion.catalogChanged();
+        Category savedCategory = categoryRepository.save(category);
+        return savedCategory;
     }
 
+    @Transactional
     public void deleteCategory(Long id) {
         // Verificar que la categoría existe
         if (!categoryRepository.existsById(id)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Categoría no encontrada con ID: " + id);
         }
 
-        // Obtener productos asociados a esta categoría
-        List<Product> productsWithCategory = productRepository.findByCategoryId(id);
+        catalogVersion.catalogChanged();
 
-        // Quitar la categoría de esos productos
-        for (Product product : productsWithCategory) {
-            product.setCategory(null);
-            productRepository.save(product);
-        }
+        // Quitar la categoría de sus productos con una sola sentencia, sin cargarlos
+        productRepository.clearCategory(id);
 
         // Eliminar la categoría
         categoryRepository.deleteById(id);
+        searchIndex.catalogChanged();
     }
 
     public List<Category> listCategories() {
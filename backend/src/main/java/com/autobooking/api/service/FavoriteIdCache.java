@@ -0,0 +1,100 @@
+package com.autobooking.api.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Caché acotada de los IDs de productos favoritos de cada usuario, para responder "¿es favorito?"
+ * y "¿cuántos favoritos tiene?" sin consultar la base de datos en cada tarjeta de producto.
+ *
+ * Cada conjunto se carga completo la primera vez y se descarta cuando el usuario añade o quita un
+ * favorito (al confirmarse la transacción) o al cumplirse app.favorites.cache.ttl, que limita
+ * cuánto tarda en verse un cambio hecho desde otra instancia. Al alcanzar app.favorites.cache.max-users
+ * se descartan primero las entradas vencidas y, si no alcanza, la caché se vacía por completo. Con
+ * max-users=0 queda desactivada.
+ */
+@Component
+public class FavoriteIdCache {
+
+    private final int maxUsers;
+    private final long ttlMillis;
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    // Se incrementa en cada invalidación; una carga que coincide con una invalidación no se guarda
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public FavoriteIdCache(@Value("${app.favorites.cache.max-users:10000}") int maxUsers,
+                           @Value("${app.favorites.cache.ttl:5m}") Duration ttl) {
+        this.maxUsers = maxUsers;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    /**
+     * Devuelve los IDs de favoritos del usuario, cargándolos con loader si no están en caché.
+     * El conjunto devuelto no se puede modificar.
+     */
+    public Set<Long> get(Long userId, Function<Long, Set<Long>> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(userId);
+        if (entry != null && entry.expiresAtMillis > now) {
+            return entry.productIds;
+        }
+
+        long stamp = invalidations.get();
+        Set<Long> productIds = Set.copyOf(loader.apply(userId));
+        if (maxUsers <= 0) {
+            return productIds;
+        }
+        if (entries.size() >= maxUsers) {
+            entries.values().removeIf(current -> current.expiresAtMillis <= now);
+            if (entries.size() >= maxUsers) {
+                entries.clear();
+            }
+        }
+        Entry loaded = new Entry(productIds, now + ttlMillis);
+        // Si hubo una invalidación durante la carga, el conjunto puede estar desactualizado y no se
+        // guarda. La comprobación va dentro de compute: invalidate() incrementa el contador antes de
+        // quitar la entrada, así que o se ve el incremento aquí o la entrada se quita después, sin
+        // que otro hilo llegue a leer un conjunto desactualizado
+        entries.compute(userId, (id, current) -> invalidations.get() == stamp ? loaded : current);
+        return productIds;
+    }
+
+    /**
+     * Descarta los favoritos en caché de un usuario al confirmarse la transacción actual, si hay una.
+     */
+    public void invalidateAfterCommit(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(userId);
+            }
+        });
+    }
+
+    private void invalidate(Long userId) {
+        invalidations.incrementAndGet();
+        entries.remove(userId);
+    }
+
+    private static final class Entry {
+        private final Set<Long> productIds;
+        private final long expiresAtMillis;
+
+        private Entry(Set<Long> productIds, long expiresAtMillis) {
+            this.productIds = productIds;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.autobooking.api.service;
+
+import com.autobooking.api.dto.KeysetPage;
+import com.autobooking.api.model.Product;
+import com.autobooking.api.repository.ProductRepository;
+import com.autobooking.api.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Favoritos de los usuarios. Las altas, bajas y consultas de pertenencia trabajan directamente
+ * sobre la tabla user_favorites, sin cargar el usuario ni sus productos, y la pertenencia se
+ * responde desde FavoriteIdCache.
+ */
+@Service
+public class FavoriteService {
+
+    // Máximo de productos por consulta de pertenencia en lote
+    public static final int MAX_LOOKUP_IDS = 200;
+
+    private final UserRepository userRepository;
+    private final ProductRepository productRepository;
+    private final FavoriteIdCache favoriteIdCache;
+    private final PopularityRanking popularityRanking;
+
+    @Autowired
+    public FavoriteService(UserRepository userRepository, ProductRepository productRepository,
+                           FavoriteIdCache favoriteIdCache, PopularityRanking popularityRanking) {
+        this.userRepository = userRepository;
+        this.productRepository = productRepository;
+        this.favoriteIdCache = favoriteIdCache;
+        this.popularityRanking = popularityRanking;
+    }
+
+    /**
+     * Añade un producto a favoritos de un usuario. Si ya era favorito no cambia nada.
+     *
+     * @throws ResponseStatusException si el usuario o producto no existe
+     */
+    @Transactional
+    public void addFavorite(Long userId, Long productId) {
+        requireUser(userId);
+        if (!productRepository.existsById(productId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Producto no encontrado con ID: " + productId);
+        }
+        if (userRepository.insertFavorite(userId, productId) > 0) {
+            favoriteIdCache.invalidateAfterCommit(userId);
+            popularityRanking.favoriteAdded(productId);
+        }
+    }
+
+    /**
+     * Elimina un producto de favoritos de un usuario. Si no era favorito no cambia nada.
+     *
+     * @throws ResponseStatusException si el usuario no existe
+     */
+    @Transactional
+    public void removeFavorite(Long userId, Long productId) {
+        requireUser(userId);
+        if (userRepository.deleteFavorite(userId, productId) > 0) {
+            favoriteIdCache.invalidateAfterCommit(userId);
+        }
+    }
+
+    /**
+     * Verifica si un producto está en los favoritos de un usuario.
+     *
+     * @throws ResponseStatusException si el usuario no existe
+     */
+    public boolean isFavorite(Long userId, Long productId) {
+        return favoriteIds(userId).contains(productId);
+    }
+
+    /**
+     * Indica, para cada producto, si está en los favoritos del usuario (en el orden recibido y
+     * sin repetidos).
+     *
+     * @throws IllegalArgumentException si se piden más de MAX_LOOKUP_IDS productos
+     * @throws ResponseStatusException si el usuario no existe
+     */
+    public Map<Long, Boolean> lookupFavorites(Long userId, Collection<Long> productIds) {
+        if (productIds.size() > MAX_LOOKUP_IDS) {
+            throw new IllegalArgumentException("No se pueden consultar más de " + MAX_LOOKUP_IDS + " productos a la vez");
+        }
+        Set<Long> favorites = favoriteIds(userId);
+        Map<Long, Boolean> result = new LinkedHashMap<>();
+        for (Long productId : productIds) {
+            result.put(productId, favorites.contains(productId));
+        }
+        return result;
+    }
+
+    /**
+     * Cantidad de favoritos de un usuario.
+     *
+     * @throws ResponseStatusException si el usuario no existe
+     */
+    public int countFavorites(Long userId) {
+        return favoriteIds(userId).size();
+    }
+
+    /**
+     * Todos los productos favoritos de un usuario, en orden de ID.
+     *
+     * @throws ResponseStatusException si el usuario no existe
+     */
+    public List<Product> getFavorites(Long userId) {
+        requireUser(userId);
+        return productRepository.findFavorites(userId);
+    }
+
+    /**
+     * Página de los productos favoritos de un usuario ordenados por ID a partir del cursor.
+     *
+     * @param userId ID del usuario
+     * @param after ID del último producto de la página anterior (null para la primera página)
+     * @param limit Tamaño de página solicitado (null para el valor por defecto)
+     * @throws ResponseStatusException si el usuario no existe
+     */
+    public KeysetPage<Product> getFavoritesPage(Long userId, Long after, Integer limit) {
+        requireUser(userId);
+        int size = KeysetPage.normalizeLimit(limit);
+        List<Product> rows = productRepository.findFavoritesPageAfter(userId, after == null ? 0L : after,
+                PageRequest.ofSize(size + 1));
+        return KeysetPage.of(rows, size, Product::getId);
+    }
+
+    private Set<Long> favoriteIds(Long userId) {
+        return favoriteIdCache.get(userId, id -> {
+            requireUser(id);
+            return new HashSet<>(userRepository.findFavoriteProductIds(id));
+        });
+    }
+
+    private void requireUser(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuario no encontrado con ID: " + userId);
+        }
+    }
+}
@@ -1,12 +1,12 @@
 package com.autobooking.api.service;
 
 import com.autobooking.api.model.Feature;
-import com.autobooking.api.model.Product;
 import com.autobooking.api.repository.FeatureRepository;
 import com.autobooking.api.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
@@ -17,13 +17,19 @@ public class FeatureService {
 
     private final FeatureRepository featureRepository;
     private final ProductRepository productRepository;
+    private final CatalogVersion catalogVersion;
+    private final ProductSearchIndex searchIndex;
 
     @Autowired
-    public FeatureService(FeatureRepository featureRepository, ProductRepository productRepository) {
+    public FeatureService(FeatureRepository featureRepository, ProductRepository productRepository,
+                          CatalogVersion catalogVersion, ProductSearchIndex searchIndex) {
         this.featureRepository = featureRepository;
         this.productRepository = productRepository;
+        this.catalogVersion = catalogVersion;
+        this.searchIndex = searchIndex;
     }
 
+    @Transactional
     public Feature createFeature(String name, String icon) {
         // Validar que el nombre no esté vacío
         if (name == null || name.trim().isEmpty()) {
@@ -38,25 +44,26 @@ public class FeatureService {
 
         // Crear y guardar la nueva característica
         Feature feature = new Feature(name.trim(), icon);
-        return featureRepository.save(feature);
+        catalogVersion.catalogChanged();
+        Feature savedFeature = featureRepository.save(feature);
+        return savedFeature;
     }
 
+    @Transactional
     public void deleteFeature(Long id) {
         // Verificar que la característica existe
-        Feature feature = featureRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Característica no encontrada con ID: " + id));
+        if (!featureRepository.existsById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Característica no encontrada con ID: " + id);
+        }
 
-        // Obtener productos asociados a esta característica
-        List<Product> productsWithFeature = productRepository.findByFeatureId(id);
+        catalogVersion.catalogChanged();
 
-        // Remover la característica de cada producto
-        for (Product product : productsWithFeature) {
-            product.removeFeature(feature);
-            productRepository.save(product);
-        }
+        // Remover la característica de todos los productos con un solo DELETE, sin cargarlos
+        productRepository.removeFeatureFromAllProducts(id);
 
         // Eliminar la característica
         featureRepository.deleteById(id);
+        searchIndex.catalogChanged();
     }
 
     public List<Feature> listFeatures() {
@@ -0,0 +1,231 @@
+package com.autobooking.api.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Almacén de imágenes en el sistema de archivos, direccionado por contenido.
+ *
+ * Cada imagen se guarda una sola vez bajo el SHA-256 de sus bytes (app.images.dir/ab/abcdef...),
+ * y los productos guardan únicamente la ruta relativa /api/images/{hash}. Como el contenido de un
+ * hash nunca cambia, las respuestas pueden cachearse indefinidamente.
+ *
+ * La URL absoluta se arma al responder (ImageUrlSerializer): con app.images.public-url si está
+ * configurada (p. ej. una CDN), o si no con el esquema, host y puerto de la petición en curso. Así
+ * cambiar de dominio o de puerto no deja URLs viejas guardadas en la base de datos.
+ */
+@Service
+public class ImageStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageStore.class);
+
+    private static final Pattern HASH_PATTERN = Pattern.compile("^[0-9a-f]{64}$");
+    // URL de una imagen del almacén, relativa o absoluta con cualquier host o base configurada
+    private static final Pattern STORED_URL_PATTERN = Pattern.compile("^(?:https?://[^/]+)?(?:/[^?#]*)?/api/images/([0-9a-f]{64})$");
+    private static final String PATH_PREFIX = "/api/images/";
+    private static final String DATA_URI_PREFIX = "data:";
+
+    private final Path baseDir;
+    private final String publicUrl;
+
+    public ImageStore(@Value("${app.images.dir:./data/images}") String baseDir,
+                      @Value("${app.images.public-url:}") String publicUrl) {
+        this.baseDir = Paths.get(baseDir).toAbsolutePath().normalize();
+        this.publicUrl = publicUrl.endsWith("/") ? publicUrl.substring(0, publicUrl.length() - 1) : publicUrl;
+    }
+
+    /**
+     * Guarda el contenido leído del stream sin cargarlo completo en memoria.
+     *
+     * @param content Bytes de la imagen
+     * @return Hash SHA-256 en hexadecimal que identifica la imagen
+     */
+    public String store(InputStream content) {
+        try {
+            Files.createDirectories(baseDir);
+            Path temp = Files.createTempFile(baseDir, "upload-", ".tmp");
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                try (InputStream in = new DigestInputStream(content, digest);
+                     OutputStream out = Files.newOutputStream(temp)) {
+                    in.transferTo(out);
+                }
+                String hash = HexFormat.of().formatHex(digest.digest());
+                Path target = pathOf(hash);
+                if (!Files.exists(target)) {
+                    Files.createDirectories(target.getParent());
+                    moveIntoPlace(temp, target);
+                }
+                return hash;
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo guardar la imagen", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reemplaza las imágenes en línea (data URI en Base64) por la ruta de la imagen almacenada, y
+     * las URLs absolutas de imágenes del almacén (las que devuelve la API) por su ruta relativa.
+     * Las demás URLs se conservan tal cual.
+     */
+    public List<String> externalize(List<String> images) {
+        if (images == null) {
+            return null;
+        }
+        List<String> result = new ArrayList<>(images.size());
+        for (String image : images) {
+            result.add(isInline(image) ? urlOf(storeDataUri(image)) : relativize(image));
+        }
+        return result;
+    }
+
+    public boolean isInline(String image) {
+        return image != null && image.startsWith(DATA_URI_PREFIX);
+    }
+
+    /**
+     * Ruta del archivo de una imagen existente.
+     *
+     * @throws ResponseStatusException 404 si el hash no es válido o la imagen no existe
+     */
+    public Path resolve(String hash) {
+        if (hash == null || !HASH_PATTERN.matcher(hash).matches()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Imagen no encontrada");
+        }
+        Path path = pathOf(hash);
+        if (!Files.isRegularFile(path)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Imagen no encontrada");
+        }
+        return path;
+    }
+
+    /**
+     * Tipo de contenido según los primeros bytes del archivo.
+     */
+    public String contentTypeOf(Path path) {
+        byte[] header = new byte[12];
+        int read;
+        try (InputStream in = Files.newInputStream(path)) {
+            read = in.readNBytes(header, 0, header.length);
+        } catch (IOException e) {
+            return "application/octet-stream";
+        }
+        if (read >= 8 && (header[0] & 0xFF) == 0x89 && header[1] == 'P' && header[2] == 'N' && header[3] == 'G') {
+            return "image/png";
+        }
+        if (read >= 3 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8 && (header[2] & 0xFF) == 0xFF) {
+            return "image/jpeg";
+        }
+        if (read >= 6 && header[0] == 'G' && header[1] == 'I' && header[2] == 'F') {
+            return "image/gif";
+        }
+        if (read >= 12 && header[0] == 'R' && header[1] == 'I' && header[2] == 'F' && header[3] == 'F'
+                && header[8] == 'W' && header[9] == 'E' && header[10] == 'B' && header[11] == 'P') {
+            return "image/webp";
+        }
+        return "application/octet-stream";
+    }
+
+    /**
+     * Ruta relativa de una imagen, la forma en que se guarda en los productos.
+     */
+    public String urlOf(String hash) {
+        return PATH_PREFIX + hash;
+    }
+
+    /**
+     * Ruta relativa de una URL de imagen del almacén, o la URL sin cambios si no es del almacén.
+     */
+    public String relativize(String image) {
+        if (image == null) {
+            return null;
+        }
+        Matcher matcher = STORED_URL_PATTERN.matcher(image);
+        return matcher.matches() ? urlOf(matcher.group(1)) : image;
+    }
+
+    /**
+     * Base de las URLs absolutas de las imágenes: app.images.public-url, o la de la petición en
+     * curso. Null fuera de una petición si no hay una configurada.
+     */
+    public String publicBaseUrl() {
+        if (!publicUrl.isEmpty()) {
+            return publicUrl;
+        }
+        if (RequestContextHolder.getRequestAttributes() == null) {
+            return null;
+        }
+        return ServletUriComponentsBuilder.fromCurrentContextPath().path("/api/images").toUriString();
+    }
+
+    /**
+     * URL absoluta de una imagen guardada con su ruta relativa; las demás (externas, o todas si
+     * baseUrl es null) se devuelven sin cambios.
+     */
+    public String publicUrlOf(String image, String baseUrl) {
+        if (baseUrl == null || image == null || !image.startsWith(PATH_PREFIX)) {
+            return image;
+        }
+        return baseUrl + "/" + image.substring(PATH_PREFIX.length());
+    }
+
+    private String storeDataUri(String dataUri) {
+        int comma = dataUri.indexOf(',');
+        if (comma < 0 || !dataUri.substring(0, comma).endsWith(";base64")) {
+            throw new IllegalArgumentException("Formato de imagen inválido: se esperaba un data URI en Base64");
+        }
+        byte[] bytes;
+        try {
+            bytes = Base64.getMimeDecoder().decode(dataUri.substring(comma + 1));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Formato de imagen inválido: Base64 incorrecto");
+        }
+        return store(new ByteArrayInputStream(bytes));
+    }
+
+    private Path pathOf(String hash) {
+        return baseDir.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Otra petición guardó el mismo contenido al mismo tiempo
+            logger.debug("image.store.duplicate hash={}", target.getFileName());
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
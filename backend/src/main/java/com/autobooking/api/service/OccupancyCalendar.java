@@ -0,0 +1,157 @@
+package com.autobooking.api.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Calendario de ocupación compacto: por producto, un long[] donde cada bit representa un día
+ * dentro de un horizonte fijo de HORIZON_DAYS días (unos dos años) que comienza en originDay.
+ *
+ * Saber si un producto está libre en todo un rango se resuelve con una o dos operaciones AND por
+ * cada 64 días del rango, sin importar cuántas reservas tenga. Los arreglos son inmutables y se
+ * reemplazan completos en cada actualización, por lo que las lecturas no necesitan bloqueos.
+ *
+ * La instancia no se desplaza: cuando el origen queda atrás, AvailabilityIndex construye un
+ * calendario nuevo con el origen actualizado.
+ */
+public final class OccupancyCalendar {
+
+    public static final int WORDS = 12;
+    public static final int HORIZON_DAYS = WORDS * Long.SIZE;
+
+    private final long originDay;
+    private final ConcurrentHashMap<Long, long[]> bitsByProduct = new ConcurrentHashMap<>();
+
+    OccupancyCalendar(long originDay) {
+        this.originDay = originDay;
+    }
+
+    /**
+     * Origen alineado a 64 días para la fecha dada; el calendario cubre entonces al menos
+     * HORIZON_DAYS - 63 días hacia adelante.
+     */
+    static long originFor(long epochDay) {
+        return Math.floorDiv(epochDay, Long.SIZE) * Long.SIZE;
+    }
+
+    long getOriginDay() {
+        return originDay;
+    }
+
+    /**
+     * Indica si el rango [startDay, endDay] cae completo dentro del horizonte.
+     */
+    boolean covers(long startDay, long endDay) {
+        return startDay >= originDay && endDay < originDay + HORIZON_DAYS;
+    }
+
+    /**
+     * Recalcula los bits de un producto a partir de sus intervalos activos.
+     */
+    void update(Long productId, AvailabilityIndex.ProductIntervals intervals) {
+        long[] bits = new long[WORDS];
+        boolean empty = true;
+        long horizonEnd = originDay + HORIZON_DAYS - 1;
+        for (int i = 0; i < intervals.size(); i++) {
+            long from = Math.max(intervals.startAt(i), originDay);
+            long to = Math.min(intervals.endAt(i), horizonEnd);
+            if (from <= to) {
+                setRange(bits, (int) (from - originDay), (int) (to - originDay));
+                empty = false;
+            }
+        }
+        if (empty) {
+            bitsByProduct.remove(productId);
+        } else {
+            bitsByProduct.put(productId, bits);
+        }
+    }
+
+    /**
+     * Verifica que el producto no tenga ningún día ocupado en [startDay, endDay]. El rango debe
+     * estar cubierto por el horizonte (ver covers()).
+     */
+    boolean isFree(Long productId, long startDay, long endDay) {
+        long[] bits = bitsByProduct.get(productId);
+        if (bits == null) {
+            return true;
+        }
+        int from = (int) (startDay - originDay);
+        int to = (int) (endDay - originDay);
+        int firstWord = from >>> 6;
+        int lastWord = to >>> 6;
+        for (int w = firstWord; w <= lastWord; w++) {
+            long mask = -1L;
+            if (w == firstWord) {
+                mask &= -1L << (from & 63);
+            }
+            if (w == lastWord) {
+                mask &= -1L >>> (63 - (to & 63));
+            }
+            if ((bits[w] & mask) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Rangos de días ocupados consecutivos desde fromDay hasta el final del horizonte, como
+     * pares {inicio, fin} en días epoch (inclusive).
+     */
+    List<long[]> busyRanges(Long productId, long fromDay) {
+        List<long[]> ranges = new ArrayList<>();
+        long[] bits = bitsByProduct.get(productId);
+        if (bits == null) {
+            return ranges;
+        }
+        int bit = (int) Math.max(0, fromDay - originDay);
+        while (bit < HORIZON_DAYS) {
+            int start = nextBit(bits, bit, true);
+            if (start < 0) {
+                break;
+            }
+            int end = nextBit(bits, start, false);
+            if (end < 0) {
+                end = HORIZON_DAYS;
+            }
+            ranges.add(new long[] {originDay + start, originDay + end - 1});
+            bit = end;
+        }
+        return ranges;
+    }
+
+    private static void setRange(long[] bits, int from, int to) {
+        int firstWord = from >>> 6;
+        int lastWord = to >>> 6;
+        for (int w = firstWord; w <= lastWord; w++) {
+            long mask = -1L;
+            if (w == firstWord) {
+                mask &= -1L << (from & 63);
+            }
+            if (w == lastWord) {
+                mask &= -1L >>> (63 - (to & 63));
+            }
+            bits[w] |= mask;
+        }
+    }
+
+    // Índice del siguiente bit en 1 (o en 0) a partir de fromBit, o -1 si no hay
+    private static int nextBit(long[] bits, int fromBit, boolean set) {
+        int w = fromBit >>> 6;
+        if (w >= WORDS) {
+            return -1;
+        }
+        long word = (set ? bits[w] : ~bits[w]) & (-1L << (fromBit & 63));
+        while (true) {
+            if (word != 0) {
+                return w * Long.SIZE + Long.numberOfTrailingZeros(word);
+            }
+            if (++w == WORDS) {
+                return -1;
+            }
+            word = set ? bits[w] : ~bits[w];
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.autobooking.api.service;
+
+import com.autobooking.api.model.ProductPopularity;
+import com.autobooking.api.repository.ProductPopularityRepository;
+import com.autobooking.api.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Ranking de popularidad de los productos a partir de la actividad: cada reserva creada suma
+ * BOOKING_WEIGHT y cada favorito añadido FAVORITE_WEIGHT. El puntaje decae a la mitad cada
+ * app.popularity.half-life, así que la actividad reciente pesa más que la antigua.
+ *
+ * Los eventos se acumulan en un LongAdder por producto al confirmarse la transacción, sin bloqueos
+ * entre peticiones. Los contadores nunca se reinician: cada refresco suma la diferencia con el total
+ * ya aplicado, así que un evento concurrente con el refresco se cuenta en el siguiente en lugar de
+ * perderse. Cada app.popularity.refresh-interval se aplica el decaimiento, se suman los
+ * eventos nuevos y se publica una instantánea inmutable con los puntajes y los app.popularity.top-k
+ * productos más populares, en total y por categoría. Las lecturas solo consultan esa instantánea:
+ * ni /api/products/trending ni la búsqueda con sort=popular ejecutan consultas de agregación.
+ *
+ * Los puntajes se guardan en product_popularity cada app.popularity.persist-interval y al detener la
+ * aplicación, y se cargan al arrancar descontando el decaimiento del tiempo transcurrido. Cada
+ * instancia cuenta solo sus propios eventos; con varias instancias, el último guardado prevalece.
+ */
+@Component
+public class PopularityRanking {
+
+    private static final Logger logger = LoggerFactory.getLogger(PopularityRanking.class);
+
+    public static final long BOOKING_WEIGHT = 3;
+    public static final long FAVORITE_WEIGHT = 1;
+    // Por debajo de este puntaje el producto deja de seguirse
+    private static final double MIN_SCORE = 0.01;
+    private static final String INSERT_SCORE =
+            "INSERT INTO product_popularity (product_id, score, updated_at) VALUES (?, ?, ?)";
+
+    private final ProductRepository productRepository;
+    private final ProductPopularityRepository popularityRepository;
+    private final CatalogVersion catalogVersion;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final double halfLifeMillis;
+    private final int topK;
+
+    // Eventos ponderados acumulados por producto; no se reinician
+    private final ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    // Estado del refresco; solo se accede con el monitor de la instancia
+    private final Map<Long, Double> scores = new HashMap<>();
+    // Total de pending ya sumado a scores por producto
+    private final Map<Long, Long> applied = new HashMap<>();
+    // Productos con eventos que no estaban en categoryByProduct, con el número de carga de
+    // categorías en que se vieron; se descartan si siguen sin aparecer en una carga posterior
+    private final Map<Long, Long> unknownSince = new HashMap<>();
+    private long categoryLoads = 0;
+    private long scoresAtMillis = System.currentTimeMillis();
+    private Map<Long, Long> categoryByProduct = new HashMap<>();
+    private String categoryETag;
+    private boolean loaded = false;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    @Autowired
+    public PopularityRanking(ProductRepository productRepository, ProductPopularityRepository popularityRepository,
+                             CatalogVersion catalogVersion, JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.popularity.half-life:7d}") Duration halfLife,
+                             @Value("${app.popularity.top-k:100}") int topK) {
+        this.productRepository = productRepository;
+        this.popularityRepository = popularityRepository;
+        this.catalogVersion = catalogVersion;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.halfLifeMillis = halfLife.toMillis();
+        this.topK = topK;
+    }
+
+    /**
+     * Registra una reserva creada, al confirmarse la transacción actual si hay una.
+     */
+    public void bookingCreated(Long productId) {
+        recordAfterCommit(productId, BOOKING_WEIGHT);
+    }
+
+    /**
+     * Registra un favorito añadido, al confirmarse la transacción actual si hay una.
+     */
+    public void favoriteAdded(Long productId) {
+        recordAfterCommit(productId, FAVORITE_WEIGHT);
+    }
+
+    /**
+     * IDs de los productos más populares, de mayor a menor puntaje.
+     *
+     * @param categoryId Categoría (null para todo el catálogo)
+     * @param limit Máximo de productos; se acota a app.popularity.top-k
+     */
+    public List<Long> topProducts(Long categoryId, int limit) {
+        Snapshot current = snapshot;
+        List<Long> top = categoryId == null ? current.top : current.topByCategory.getOrDefault(categoryId, List.of());
+        return top.subList(0, Math.min(limit, top.size()));
+    }
+
+    /**
+     * Cantidad máxima de productos que se mantienen en cada ranking.
+     */
+    public int topK() {
+        return topK;
+    }
+
+    /**
+     * Puntaje actual de un producto (0 si no tiene actividad).
+     */
+    public double score(Long productId) {
+        return snapshot.scores.getOrDefault(productId, 0.0);
+    }
+
+    /**
+     * Devuelve una copia de los elementos ordenada de mayor a menor puntaje; los empates (incluidos
+     * los productos sin actividad) conservan el orden recibido.
+     */
+    public <T> List<T> sortByPopularity(List<T> items, Function<T, Long> idOf) {
+        Map<Long, Double> current = snapshot.scores;
+        List<T> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparingDouble((T item) -> current.getOrDefault(idOf.apply(item), 0.0)).reversed());
+        return sorted;
+    }
+
+    /**
+     * Carga los puntajes guardados, descontando el decaimiento desde que se guardaron.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        long now = System.currentTimeMillis();
+        for (ProductPopularity popularity : popularityRepository.findAll()) {
+            double score = popularity.getScore() * decayFactor(now - popularity.getUpdatedAt().toEpochMilli());
+            scores.put(popularity.getProductId(), score);
+        }
+        scoresAtMillis = now;
+        loaded = true;
+        refresh();
+        logger.info("popularity.loaded products={}", scores.size());
+    }
+
+    /**
+     * Aplica el decaimiento, suma los eventos pendientes y publica una nueva instantánea.
+     */
+    @Scheduled(fixedDelayString = "${app.popularity.refresh-interval:PT30S}",
+            initialDelayString = "${app.popularity.refresh-interval:PT30S}")
+    public synchronized void refresh() {
+        if (!loaded) {
+            return;
+        }
+        reloadCategoriesIfChanged();
+
+        long now = System.currentTimeMillis();
+        double decay = decayFactor(now - scoresAtMillis);
+        scoresAtMillis = now;
+        scores.replaceAll((productId, score) -> score * decay);
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            Long productId = entry.getKey();
+            if (!categoryByProduct.containsKey(productId)) {
+                forgetIfDeleted(productId);
+                continue;
+            }
+            unknownSince.remove(productId);
+            long total = entry.getValue().sum();
+            long events = total - applied.getOrDefault(productId, 0L);
+            if (events > 0) {
+                scores.merge(productId, (double) events, Double::sum);
+                applied.put(productId, total);
+            }
+        }
+        // Sin actividad reciente o eliminados del catálogo
+        scores.entrySet().removeIf(entry -> entry.getValue() < MIN_SCORE || !categoryByProduct.containsKey(entry.getKey()));
+
+        snapshot = buildSnapshot();
+    }
+
+    /**
+     * Guarda los puntajes actuales en product_popularity, reemplazando los anteriores.
+     */
+    @Scheduled(fixedDelayString = "${app.popularity.persist-interval:PT5M}",
+            initialDelayString = "${app.popularity.persist-interval:PT5M}")
+    public synchronized void persist() {
+        if (!loaded) {
+            return;
+        }
+        refresh();
+        Timestamp updatedAt = new Timestamp(scoresAtMillis);
+        List<Object[]> rows = new ArrayList<>(scores.size());
+        scores.forEach((productId, score) -> rows.add(new Object[] {productId, score, updatedAt}));
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM product_popularity");
+            jdbcTemplate.batchUpdate(INSERT_SCORE, rows);
+        });
+        logger.debug("popularity.persisted products={}", rows.size());
+    }
+
+    @PreDestroy
+    public void persistOnShutdown() {
+        try {
+            persist();
+        } catch (RuntimeException e) {
+            logger.warn("popularity.persist.failed reason={}", e.getMessage());
+        }
+    }
+
+    private void recordAfterCommit(Long productId, long weight) {
+        Runnable action = () -> pending.computeIfAbsent(productId, id -> new LongAdder()).add(weight);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // Un producto con eventos existía al registrarlos. Si no está en las categorías, puede ser nuevo
+    // y posterior a la última carga: se fuerza otra carga y solo se descartan sus eventos si
+    // tampoco aparece en ella (fue eliminado)
+    private void forgetIfDeleted(Long productId) {
+        Long seenAt = unknownSince.putIfAbsent(productId, categoryLoads);
+        if (seenAt == null || seenAt == categoryLoads) {
+            categoryETag = null;
+            return;
+        }
+        pending.remove(productId);
+        applied.remove(productId);
+        unknownSince.remove(productId);
+    }
+
+    // La categoría de cada producto se vuelve a leer solo si cambió el catálogo (la versión se lee
+    // antes que los datos, igual que en las respuestas con ETag)
+    private void reloadCategoriesIfChanged() {
+        String etag = catalogVersion.catalogETag();
+        if (etag != null && etag.equals(categoryETag)) {
+            return;
+        }
+        Map<Long, Long> categories = new HashMap<>();
+        for (Object[] row : productRepository.findCategoryIds()) {
+            categories.put((Long) row[0], (Long) row[1]);
+        }
+        categoryByProduct = categories;
+        categoryETag = etag;
+        categoryLoads++;
+    }
+
+    private Snapshot buildSnapshot() {
+        List<Long> ranked = new ArrayList<>(scores.keySet());
+        ranked.sort(Comparator.comparingDouble((Long productId) -> scores.get(productId)).reversed()
+                .thenComparing(Comparator.naturalOrder()));
+
+        List<Long> top = List.copyOf(ranked.subList(0, Math.min(topK, ranked.size())));
+        Map<Long, List<Long>> byCategory = new HashMap<>();
+        for (Long productId : ranked) {
+            Long categoryId = categoryByProduct.get(productId);
+            if (categoryId != null) {
+                List<Long> categoryTop = byCategory.computeIfAbsent(categoryId, id -> new ArrayList<>());
+                if (categoryTop.size() < topK) {
+                    categoryTop.add(productId);
+                }
+            }
+        }
+        Map<Long, List<Long>> topByCategory = new HashMap<>();
+        byCategory.forEach((categoryId, productIds) -> topByCategory.put(categoryId, List.copyOf(productIds)));
+        return new Snapshot(Map.copyOf(scores), top, Map.copyOf(topByCategory));
+    }
+
+    private double decayFactor(long elapsedMillis) {
+        return elapsedMillis <= 0 ? 1.0 : Math.pow(0.5, elapsedMillis / halfLifeMillis);
+    }
+
+    private static final class Snapshot {
+        private static final Snapshot EMPTY = new Snapshot(Map.of(), List.of(), Map.of());
+
+        private final Map<Long, Double> scores;
+        private final List<Long> top;
+        private final Map<Long, List<Long>> topByCategory;
+
+        private Snapshot(Map<Long, Double> scores, List<Long> top, Map<Long, List<Long>> topByCategory) {
+            this.scores = scores;
+            this.top = top;
+            this.topByCategory = topByCategory;
+        }
+    }
+}
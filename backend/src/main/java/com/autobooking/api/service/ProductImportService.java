@@ -0,0 +1,430 @@
+package com.autobooking.api.service;
+
+import com.autobooking.api.dto.ImportReport;
+import com.autobooking.api.model.Category;
+import com.autobooking.api.model.Feature;
+import com.autobooking.api.repository.CategoryRepository;
+import com.autobooking.api.repository.FeatureRepository;
+import com.autobooking.api.util.CsvReader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Importación masiva de productos desde CSV o NDJSON.
+ *
+ * El archivo se lee fila por fila mientras llega y las filas válidas se insertan por JDBC en
+ * bloques de CHUNK_SIZE (productos, imágenes y características en lotes), cada bloque en su
+ * propia transacción. La memoria usada depende del tamaño del bloque, no del archivo. Las
+ * categorías y características se resuelven por nombre (sin distinguir mayúsculas) con un mapa
+ * cargado una vez al empezar; las filas con errores se informan con su línea y no se importan.
+ *
+ * Como los INSERT no pasan por Hibernate, al terminar se vacía la caché de consultas y se
+ * registra el cambio en CatalogVersion.
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+
+    private static final int CHUNK_SIZE = 500;
+    // Límite por fila (incluye imágenes en Base64)
+    private static final int MAX_ROW_CHARS = 16 * 1024 * 1024;
+    private static final String LIST_SEPARATOR = "|";
+
+    private static final int LINE_READ = 0;
+    private static final int LINE_TOO_LONG = 1;
+    private static final int END_OF_INPUT = -1;
+
+    private static final String INSERT_PRODUCT = "INSERT INTO products (name, description, category_id, price) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_IMAGE = "INSERT INTO product_images (product_id, image_order, image) VALUES (?, ?, ?)";
+    private static final String INSERT_FEATURE = "INSERT INTO product_features (product_id, feature_id) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CategoryRepository categoryRepository;
+    private final FeatureRepository featureRepository;
+    private final ImageStore imageStore;
+    private final CatalogVersion catalogVersion;
+    private final ProductSearchIndex searchIndex;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ProductImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                CategoryRepository categoryRepository, FeatureRepository featureRepository,
+                                ImageStore imageStore, CatalogVersion catalogVersion, ProductSearchIndex searchIndex,
+                                EntityManagerFactory entityManagerFactory, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.categoryRepository = categoryRepository;
+        this.featureRepository = featureRepository;
+        this.imageStore = imageStore;
+        this.catalogVersion = catalogVersion;
+        this.searchIndex = searchIndex;
+        this.entityManagerFactory = entityManagerFactory;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Importa un CSV con cabecera. Columnas: name, description y price (obligatorias), category,
+     * features e images; features e images admiten varios valores separados por "|".
+     *
+     * @throws IllegalArgumentException si falta la cabecera o alguna columna obligatoria
+     */
+    public ImportReport importCsv(Reader reader) throws IOException {
+        CsvReader csv = new CsvReader(reader, MAX_ROW_CHARS);
+        List<String> header = csv.next();
+        if (header == null) {
+            throw new IllegalArgumentException("El archivo está vacío");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            // Quitar el BOM que algunos editores añaden al inicio del archivo
+            String column = i == 0 ? header.get(i).replace("\uFEFF", "") : header.get(i);
+            columns.put(column.trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("name", "description", "price")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("Falta la columna obligatoria: " + required);
+            }
+        }
+
+        Import run = new Import();
+        while (true) {
+            List<String> record;
+            try {
+                record = csv.next();
+            } catch (IllegalArgumentException e) {
+                // Tras un registro mal formado no se puede saber dónde empieza el siguiente
+                run.report.failed(csv.getRecordLine(), e.getMessage() + ". Se detuvo la lectura del archivo");
+                break;
+            }
+            if (record == null) {
+                break;
+            }
+            long line = csv.getRecordLine();
+            try {
+                run.add(toRow(line,
+                        column(record, columns, "name"),
+                        column(record, columns, "description"),
+                        column(record, columns, "price"),
+                        column(record, columns, "category"),
+                        split(column(record, columns, "features")),
+                        split(column(record, columns, "images")),
+                        run));
+            } catch (IllegalArgumentException e) {
+                run.report.failed(line, e.getMessage());
+            }
+        }
+        return run.finish();
+    }
+
+    /**
+     * Importa NDJSON: un objeto por línea con name, description, price, category y los arreglos
+     * features (nombres) e images.
+     */
+    public ImportReport importNdjson(Reader reader) throws IOException {
+        Import run = new Import();
+        StringBuilder buffer = new StringBuilder();
+        long line = 0;
+        int status;
+        while ((status = readLine(reader, buffer)) != END_OF_INPUT) {
+            line++;
+            if (status == LINE_TOO_LONG) {
+                run.report.failed(line, "La línea supera " + MAX_ROW_CHARS + " caracteres");
+                continue;
+            }
+            if (buffer.toString().isBlank()) {
+                continue;
+            }
+            try {
+                JsonNode node = objectMapper.readTree(buffer.toString());
+                if (!node.isObject()) {
+                    throw new IllegalArgumentException("Cada línea debe ser un objeto JSON");
+                }
+                run.add(toRow(line, text(node, "name"), text(node, "description"), text(node, "price"),
+                        text(node, "category"), list(node, "features"), list(node, "images"), run));
+            } catch (JsonProcessingException e) {
+                run.report.failed(line, "JSON inválido: " + e.getOriginalMessage());
+            } catch (IllegalArgumentException e) {
+                run.report.failed(line, e.getMessage());
+            }
+        }
+        return run.finish();
+    }
+
+    private ProductRow toRow(long line, String name, String description, String priceText, String categoryName,
+                             List<String> featureNames, List<String> images, Import run) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("El nombre es obligatorio");
+        }
+        if (description == null || description.isBlank()) {
+            throw new IllegalArgumentException("La descripción es obligatoria");
+        }
+        if (priceText == null || priceText.isBlank()) {
+            throw new IllegalArgumentException("El precio es obligatorio");
+        }
+        BigDecimal price;
+        try {
+            price = new BigDecimal(priceText.trim()).setScale(2, RoundingMode.HALF_UP);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Precio inválido: " + priceText);
+        }
+        if (price.signum() <= 0) {
+            throw new IllegalArgumentException("El precio debe ser un valor positivo");
+        }
+        if (price.precision() > 10) {
+            throw new IllegalArgumentException("Precio fuera de rango: " + priceText);
+        }
+
+        Long categoryId = null;
+        if (categoryName != null && !categoryName.isBlank()) {
+            categoryId = run.categories.get(key(categoryName));
+            if (categoryId == null) {
+                throw new IllegalArgumentException("Categoría no encontrada: " + categoryName.trim());
+            }
+        }
+        Set<Long> featureIds = new LinkedHashSet<>();
+        for (String featureName : featureNames) {
+            Long featureId = run.features.get(key(featureName));
+            if (featureId == null) {
+                throw new IllegalArgumentException("Característica no encontrada: " + featureName);
+            }
+            featureIds.add(featureId);
+        }
+
+        List<String> storedImages;
+        try {
+            // Las imágenes en Base64 van al almacén, igual que en el alta individual
+            storedImages = imageStore.externalize(images);
+        } catch (ResponseStatusException e) {
+            throw new IllegalArgumentException(e.getReason());
+        }
+        return new ProductRow(line, name.trim(), description.trim(), categoryId, price, featureIds, storedImages);
+    }
+
+    // Inserta un bloque de filas válidas; si la base de datos rechaza el bloque, todas sus filas
+    // se informan como fallidas y la importación continúa con el siguiente
+    private void flush(List<ProductRow> chunk, ImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(chunk));
+            report.imported(chunk.size());
+        } catch (DataAccessException e) {
+            String error = "Error al guardar el bloque: " + e.getMostSpecificCause().getMessage();
+            logger.warn("product.import.chunkFailed firstLine={} rows={} error={}", chunk.get(0).line, chunk.size(), error);
+            for (ProductRow row : chunk) {
+                report.failed(row.line, error);
+            }
+        }
+        chunk.clear();
+    }
+
+    private void insert(List<ProductRow> chunk) {
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_PRODUCT, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ProductRow row = chunk.get(i);
+                        ps.setString(1, row.name);
+                        ps.setString(2, row.description);
+                        ps.setObject(3, row.categoryId);
+                        ps.setBigDecimal(4, row.price);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return chunk.size();
+                    }
+                }, keys);
+
+        List<Map<String, Object>> generated = keys.getKeyList();
+        if (generated.size() != chunk.size()) {
+            throw new IllegalStateException("La base de datos devolvió " + generated.size()
+                    + " IDs para " + chunk.size() + " productos");
+        }
+        List<Object[]> images = new ArrayList<>();
+        List<Object[]> features = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Long productId = ((Number) generated.get(i).values().iterator().next()).longValue();
+            ProductRow row = chunk.get(i);
+            for (int position = 0; position < row.images.size(); position++) {
+                images.add(new Object[] {productId, position, row.images.get(position)});
+            }
+            for (Long featureId : row.featureIds) {
+                features.add(new Object[] {productId, featureId});
+            }
+        }
+        if (!images.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_IMAGE, images);
+        }
+        if (!features.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_FEATURE, features);
+        }
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index == null || index >= record.size() ? null : record.get(index);
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    // Arreglo JSON de textos, o un texto con valores separados por "|" como en el CSV
+    private static List<String> list(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || value.isNull()) {
+            return List.of();
+        }
+        if (!value.isArray()) {
+            return split(value.asText());
+        }
+        List<String> values = new ArrayList<>(value.size());
+        for (JsonNode element : value) {
+            String text = element.asText().trim();
+            if (!text.isEmpty()) {
+                values.add(text);
+            }
+        }
+        return values;
+    }
+
+    private static List<String> split(String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        List<String> values = new ArrayList<>();
+        for (String part : value.split(Pattern.quote(LIST_SEPARATOR))) {
+            if (!part.isBlank()) {
+                values.add(part.trim());
+            }
+        }
+        return values;
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Lee una línea en buffer (sin el salto de línea). Una línea demasiado larga se descarta
+    // hasta su final sin guardarla
+    private static int readLine(Reader reader, StringBuilder buffer) throws IOException {
+        buffer.setLength(0);
+        int c = reader.read();
+        if (c == -1) {
+            return END_OF_INPUT;
+        }
+        boolean tooLong = false;
+        while (c != -1 && c != '\n') {
+            if (c != '\r' && !tooLong) {
+                if (buffer.length() >= MAX_ROW_CHARS) {
+                    tooLong = true;
+                    buffer.setLength(0);
+                } else {
+                    buffer.append((char) c);
+                }
+            }
+            c = reader.read();
+        }
+        return tooLong ? LINE_TOO_LONG : LINE_READ;
+    }
+
+    /**
+     * Estado de una importación: nombres de categorías y características, bloque pendiente y reporte.
+     */
+    private final class Import {
+
+        private final Map<String, Long> categories = new HashMap<>();
+        private final Map<String, Long> features = new HashMap<>();
+        private final List<ProductRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        private final ImportReport report = new ImportReport();
+        private final long started = System.nanoTime();
+
+        Import() {
+            for (Category category : categoryRepository.findAll()) {
+                categories.put(key(category.getName()), category.getId());
+            }
+            for (Feature feature : featureRepository.findAll()) {
+                features.put(key(feature.getName()), feature.getId());
+            }
+        }
+
+        void add(ProductRow row) {
+            chunk.add(row);
+            if (chunk.size() == CHUNK_SIZE) {
+                flush(chunk, report);
+            }
+        }
+
+        ImportReport finish() {
+            flush(chunk, report);
+            if (report.getImported() > 0) {
+                // Las entidades en caché no cambian; sí las listas guardadas en la caché de consultas
+                entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+                catalogVersion.catalogChanged();
+                searchIndex.catalogChanged();
+            }
+            logger.info("product.import imported={} failed={} elapsedMs={}", report.getImported(), report.getFailed(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            return report;
+        }
+    }
+
+    private static final class ProductRow {
+
+        private final long line;
+        private final String name;
+        private final String description;
+        private final Long categoryId;
+        private final BigDecimal price;
+        private final Set<Long> featureIds;
+        private final List<String> images;
+
+        ProductRow(long line, String name, String description, Long categoryId, BigDecimal price,
+                   Set<Long> featureIds, List<String> images) {
+            this.line = line;
+            this.name = name;
+            this.description = description;
+            this.categoryId = categoryId;
+            this.price = price;
+            this.featureIds = featureIds;
+            this.images = images;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.autobooking.api.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Locks en proceso para serializar la creación de reservas de un mismo producto.
+ *
+ * Se usa un número fijo de locks (stripes) y cada producto se asigna a uno según su ID, así la
+ * memoria no crece con el tamaño de la flota y productos distintos reservan en paralelo salvo
+ * que compartan stripe. El lock debe envolver la transacción completa, incluido el commit, para
+ * que la siguiente reserva del producto vea la anterior.
+ */
+@Component
+public class ProductLockStripes {
+
+    private static final int STRIPES = 1024;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    public ProductLockStripes() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Ejecuta la acción con el lock del producto tomado.
+     */
+    public <T> T withLock(Long productId, Supplier<T> action) {
+        ReentrantLock lock = locks[stripeOf(productId)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ejecuta la acción con los locks de todos los productos tomados. Los stripes se adquieren
+     * en orden ascendente para evitar interbloqueos entre operaciones que comparten productos.
+     */
+    public <T> T withLocks(Collection<Long> productIds, Supplier<T> action) {
+        TreeSet<Integer> stripes = new TreeSet<>();
+        for (Long productId : productIds) {
+            stripes.add(stripeOf(productId));
+        }
+        Deque<ReentrantLock> acquired = new ArrayDeque<>(stripes.size());
+        try {
+            for (Integer stripe : stripes) {
+                locks[stripe].lock();
+                acquired.push(locks[stripe]);
+            }
+            return action.get();
+        } finally {
+            while (!acquired.isEmpty()) {
+                acquired.pop().unlock();
+            }
+        }
+    }
+
+    private static int stripeOf(Long productId) {
+        int h = productId.hashCode();
+        h ^= (h >>> 16);
+        return (h * 0x9E3779B9 >>> 22) & (STRIPES - 1);
+    }
+}
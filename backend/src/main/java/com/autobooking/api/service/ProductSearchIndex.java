@@ -0,0 +1,286 @@
+package com.autobooking.api.service;
+
+import com.autobooking.api.repository.ProductRepository;
+import com.autobooking.api.util.SearchTokenizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido en memoria para la búsqueda de productos por texto: nombre, descripción,
+ * nombre de la categoría y nombres de las características, tokenizados con SearchTokenizer (sin
+ * tildes, así "sedán" encuentra "sedan"). Los términos del nombre cuentan doble.
+ *
+ * Una consulta devuelve los productos que contienen alguno de sus términos, ordenados por BM25
+ * (k1 = 1.2, b = 0.75): pesan más los términos poco frecuentes en el catálogo y las apariciones
+ * en textos cortos. La categoría y la característica se filtran en el propio índice.
+ *
+ * El índice se construye al arrancar la aplicación. ProductService registra los productos que
+ * crea, elimina o cuyas características cambia, y esos productos se vuelven a leer antes de la
+ * siguiente búsqueda; los cambios que afectan a muchos productos (eliminar una categoría o una
+ * característica, importar productos) piden en cambio una reconstrucción completa. Los cambios
+ * hechos desde otra instancia se ven al reiniciar.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int NAME_WEIGHT = 2;
+
+    private final ProductRepository productRepository;
+
+    // Las búsquedas toman el lock de lectura; aplicar cambios o reemplazar el índice, el de escritura
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Inverted index = new Inverted();
+
+    // Productos modificados desde la última actualización y pedido de reconstrucción completa
+    // (pendiente desde el inicio hasta la primera construcción)
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean(true);
+
+    @Autowired
+    public ProductSearchIndex(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * Construye el índice al arrancar, para que la primera búsqueda no tenga que esperar.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        refresh();
+    }
+
+    /**
+     * Registra un producto creado, modificado o eliminado, al confirmarse la transacción actual si hay una.
+     */
+    public void productChanged(Long productId) {
+        afterCommit(() -> pending.add(productId));
+    }
+
+    /**
+     * Pide reconstruir el índice completo, al confirmarse la transacción actual si hay una.
+     */
+    public void catalogChanged() {
+        afterCommit(() -> rebuildRequested.set(true));
+    }
+
+    /**
+     * IDs de los productos que coinciden con la consulta, de mayor a menor relevancia (a igual
+     * relevancia, por ID). Una consulta sin términos indexables no coincide con ningún producto.
+     *
+     * @param query Texto de la consulta
+     * @param categoryId ID de categoría opcional
+     * @param featureId ID de característica opcional
+     */
+    public List<Long> search(String query, Long categoryId, Long featureId) {
+        if (rebuildRequested.get() || !pending.isEmpty()) {
+            refresh();
+        }
+        Set<String> terms = new LinkedHashSet<>(SearchTokenizer.tokenize(query));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return index.search(terms, categoryId, featureId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Las actualizaciones se serializan: dos lecturas del mismo producto no se aplican en desorden
+    private synchronized void refresh() {
+        if (rebuildRequested.getAndSet(false)) {
+            long started = System.nanoTime();
+            // La reconstrucción lee la base de datos después de esto, así que incluye estos cambios
+            pending.clear();
+            Inverted rebuilt = new Inverted();
+            try {
+                documents(productRepository.findSearchFields(), productRepository.findSearchFeatures()).forEach(rebuilt::add);
+            } catch (RuntimeException e) {
+                rebuildRequested.set(true);
+                throw e;
+            }
+            lock.writeLock().lock();
+            try {
+                index = rebuilt;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("search.index.built products={} terms={} elapsedMs={}", rebuilt.documents.size(),
+                    rebuilt.postings.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            return;
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Long> productIds = new ArrayList<>(pending);
+        pending.removeAll(productIds);
+        Map<Long, Document> changed;
+        try {
+            changed = documents(productRepository.findSearchFieldsByIds(productIds),
+                    productRepository.findSearchFeaturesByIds(productIds));
+        } catch (RuntimeException e) {
+            pending.addAll(productIds);
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            for (Long productId : productIds) {
+                index.remove(productId);
+                Document document = changed.get(productId);
+                // Sin fila en la base de datos: el producto fue eliminado
+                if (document != null) {
+                    index.add(productId, document);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.debug("search.index.updated products={}", productIds.size());
+    }
+
+    // Filas de findSearchFields y findSearchFeatures (o sus variantes por ID) agrupadas por producto
+    private static Map<Long, Document> documents(List<Object[]> fields, List<Object[]> features) {
+        Map<Long, Document> documents = new HashMap<>();
+        for (Object[] row : fields) {
+            Document document = new Document((Long) row[3]);
+            document.addText((String) row[1], NAME_WEIGHT);
+            document.addText((String) row[2], 1);
+            document.addText((String) row[4], 1);
+            documents.put((Long) row[0], document);
+        }
+        for (Object[] row : features) {
+            Document document = documents.get((Long) row[0]);
+            if (document != null) {
+                document.featureIds.add((Long) row[1]);
+                document.addText((String) row[2], 1);
+            }
+        }
+        return documents;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Términos de un producto (con su frecuencia ponderada) y los datos para filtrar.
+     */
+    private static final class Document {
+        private final Map<String, Integer> termFrequencies = new HashMap<>();
+        private final Long categoryId;
+        private final Set<Long> featureIds = new HashSet<>();
+        private int length;
+
+        private Document(Long categoryId) {
+            this.categoryId = categoryId;
+        }
+
+        private void addText(String text, int weight) {
+            for (String term : SearchTokenizer.tokenize(text)) {
+                termFrequencies.merge(term, weight, Integer::sum);
+                length += weight;
+            }
+        }
+
+        private boolean matches(Long categoryId, Long featureId) {
+            return (categoryId == null || categoryId.equals(this.categoryId))
+                    && (featureId == null || featureIds.contains(featureId));
+        }
+    }
+
+    /**
+     * Listas de productos por término; se modifica solo con el lock de escritura.
+     */
+    private static final class Inverted {
+        private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+        private final Map<Long, Document> documents = new HashMap<>();
+        private long totalLength;
+
+        private void add(Long productId, Document document) {
+            documents.put(productId, document);
+            totalLength += document.length;
+            document.termFrequencies.forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, key -> new HashMap<>()).put(productId, frequency));
+        }
+
+        private void remove(Long productId) {
+            Document document = documents.remove(productId);
+            if (document == null) {
+                return;
+            }
+            totalLength -= document.length;
+            for (String term : document.termFrequencies.keySet()) {
+                Map<Long, Integer> products = postings.get(term);
+                products.remove(productId);
+                if (products.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+
+        private List<Long> search(Collection<String> terms, Long categoryId, Long featureId) {
+            int count = documents.size();
+            if (count == 0) {
+                return List.of();
+            }
+            double averageLength = Math.max(1.0, (double) totalLength / count);
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<Long, Integer> products = postings.get(term);
+                if (products == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (count - products.size() + 0.5) / (products.size() + 0.5));
+                for (Map.Entry<Long, Integer> entry : products.entrySet()) {
+                    Document document = documents.get(entry.getKey());
+                    if (!document.matches(categoryId, featureId)) {
+                        continue;
+                    }
+                    double frequency = entry.getValue();
+                    double score = idf * frequency * (K1 + 1)
+                            / (frequency + K1 * (1 - B + B * document.length / averageLength));
+                    scores.merge(entry.getKey(), score, Double::sum);
+                }
+            }
+            List<Long> ranked = new ArrayList<>(scores.keySet());
+            ranked.sort(Comparator.comparingDouble((Long productId) -> scores.get(productId)).reversed()
+                    .thenComparing(Comparator.naturalOrder()));
+            return ranked;
+        }
+    }
+}
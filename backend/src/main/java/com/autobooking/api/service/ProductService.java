@@ -1,13 +1,25 @@
 package com.autobooking.api.service;
 
+import com.autobooking.api.dto.KeysetPage;
+import com.autobooking.api.dto.ProductSummary;
 import com.autobooking.api.model.Feature;
 import com.autobooking.api.model.Product;
-import com.autobooking.api.model.Booking;
 import com.autobooking.api.repository.FeatureRepository;
 import com.autobooking.api.repository.ProductRepository;
+import com.autobooking.api.util.LogSampler;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
@@ -15,23 +27,62 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 public class ProductService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ProductService.class);
+    private static final int STREAM_CHUNK_SIZE = 500;
+    private static final int DEFAULT_TRENDING_LIMIT = 10;
+    // Orden de búsqueda por popularidad (sin sort se conserva el orden de la consulta)
+    public static final String SORT_POPULAR = "popular";
+    private static final int MAX_QUERY_LENGTH = 200;
+
     private final ProductRepository productRepository;
     private final FeatureRepository featureRepository;
-    private final BookingService bookingService;
+    private final AvailabilityIndex availabilityIndex;
+    private final ImageStore imageStore;
+    private final CatalogVersion catalogVersion;
+    private final PopularityRanking popularityRanking;
+    private final ProductSearchIndex searchIndex;
+    private final MeterRegistry meterRegistry;
+    private final LogSampler searchLogSampler;
+    // Medidores de recordSearch por combinación de etiquetas, registrados una sola vez
+    private final Map<String, Timer> searchTimers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> checkedSummaries = new ConcurrentHashMap<>();
+
+    @Value("${app.images.migrate-inline:true}")
+    private boolean migrateInlineImages;
 
     @Autowired
-    public ProductService(ProductRepository productRepository, FeatureRepository featureRepository, BookingService bookingService) {
+    public ProductService(ProductRepository productRepository, FeatureRepository featureRepository, AvailabilityIndex availabilityIndex,
+                          ImageStore imageStore, CatalogVersion catalogVersion, PopularityRanking popularityRanking,
+                          ProductSearchIndex searchIndex, MeterRegistry meterRegistry,
+                          @Value("${app.logging.sample-rate.search:1.0}") double searchSampleRate) {
         this.productRepository = productRepository;
         this.featureRepository = featureRepository;
-        this.bookingService = bookingService;
+        this.availabilityIndex = availabilityIndex;
+        this.imageStore = imageStore;
+        this.catalogVersion = catalogVersion;
+        this.popularityRanking = popularityRanking;
+        this.searchIndex = searchIndex;
+        this.meterRegistry = meterRegistry;
+        this.searchLogSampler = new LogSampler(searchSampleRate);
     }
 
+    @Transactional
     public Product addProduct(Product product) {
         if (product.getName() == null || product.getName().trim().isEmpty() ||
             product.getDescription() == null || product.getDescription().trim().isEmpty()) {
@@ -42,18 +93,89 @@ public class ProductService {
             throw new IllegalArgumentException("El precio es obligatorio");
         }
         
-        return productRepository.save(product);
+        // Las imágenes en Base64 se guardan en el almacén y el producto conserva solo su ruta
+        product.setImages(imageStore.externalize(product.getImages()));
+        
+        catalogVersion.catalogChanged();
+        Product savedProduct = productRepository.save(product);
+        searchIndex.productChanged(savedProduct.getId());
+        return savedProduct;
+    }
+    
+    /**
+     * Migra al almacén de imágenes las imágenes en Base64 que aún estén guardadas en la tabla
+     * product_images, y reemplaza las URLs absolutas del almacén por su ruta relativa. Cada
+     * producto se guarda por separado para no acumular en memoria las imágenes de todos. Se activa
+     * con app.images.migrate-inline=true.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void externalizeInlineImages() {
+        if (!migrateInlineImages) {
+            return;
+        }
+        List<Long> productIds = productRepository.findIdsWithImagesToRewrite();
+        for (Long productId : productIds) {
+            productRepository.findWithImagesById(productId).ifPresent(product -> {
+                product.setImages(imageStore.externalize(product.getImages()));
+                productRepository.save(product);
+            });
+        }
+        if (!productIds.isEmpty()) {
+            catalogVersion.catalogChanged();
+            logger.info("image.migration products={}", productIds.size());
+        }
     }
     
     public List<Product> findAll() {
         return productRepository.findAll();
     }
     
+    /**
+     * Página de productos ordenados por ID a partir del cursor.
+     * 
+     * @param after ID del último producto de la página anterior (null para la primera página)
+     * @param limit Tamaño de página solicitado (null para el valor por defecto)
+     */
+    public KeysetPage<Product> findPage(Long after, Integer limit) {
+        int size = KeysetPage.normalizeLimit(limit);
+        List<Product> rows = productRepository.findPageAfter(after == null ? 0L : after, PageRequest.ofSize(size + 1));
+        return KeysetPage.of(rows, size, Product::getId);
+    }
+    
+    public long count() {
+        return productRepository.count();
+    }
+    
+    /**
+     * Recorre el resumen de todos los productos sin cargarlos todos en memoria: las filas se leen
+     * del cursor de la base de datos y se entregan en bloques, completando los IDs de
+     * características con una consulta por bloque.
+     * 
+     * @param consumer Acción que recibe cada resumen, en orden de ID
+     */
+    @Transactional(readOnly = true)
+    public void forEachSummary(Consumer<ProductSummary> consumer) {
+        List<ProductSummary> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+        try (Stream<ProductSummary> summaries = productRepository.streamSummaries()) {
+            Iterator<ProductSummary> iterator = summaries.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == STREAM_CHUNK_SIZE || !iterator.hasNext()) {
+                    withFeatureIds(chunk).forEach(consumer);
+                    chunk.clear();
+                }
+            }
+        }
+    }
+    
+    @Transactional
     public void deleteProduct(Long id) {
         if (!productRepository.existsById(id)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Producto no encontrado con ID: " + id);
         }
+        catalogVersion.catalogChanged();
         productRepository.deleteById(id);
+        searchIndex.productChanged(id);
     }
     
     public List<Product> findByCategoryId(Long categoryId) {
@@ -63,7 +185,26 @@ public class ProductService {
     public List<Product> findByCategoryName(String categoryName) {
         return productRepository.findByCategoryName(categoryName);
     }
+
+    /**
+     * Productos más populares por reservas y favoritos recientes, de mayor a menor puntaje. Se
+     * leen del ranking en memoria (PopularityRanking); la única consulta es la de los productos.
+     *
+     * @param categoryId Categoría opcional
+     * @param limit Cantidad de productos (por defecto 10, como máximo app.popularity.top-k)
+     * @throws ResponseStatusException 400 si el límite está fuera de rango
+     */
+    public List<Product> findTrending(Long categoryId, Integer limit) {
+        int size = limit == null ? Math.min(DEFAULT_TRENDING_LIMIT, popularityRanking.topK()) : limit;
+        if (size < 1 || size > popularityRanking.topK()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "El límite debe estar entre 1 y " + popularityRanking.topK());
+        }
+        // En el orden del ranking, omitiendo los productos eliminados desde el último refresco
+        return inOrder(popularityRanking.topProducts(categoryId, size), productRepository::findListingByIds, Product::getId);
+    }
     
+    @Transactional
     public Product addFeatureToProduct(Long productId, Long featureId) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, 
@@ -73,10 +214,14 @@ public class ProductService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, 
                         "Característica no encontrada con ID: " + featureId));
         
+        catalogVersion.catalogChanged();
         product.addFeature(feature);
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        searchIndex.productChanged(productId);
+        return savedProduct;
     }
     
+    @Transactional
     public Product removeFeatureFromProduct(Long productId, Long featureId) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, 
@@ -86,8 +231,11 @@ public class ProductService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, 
                         "Característica no encontrada con ID: " + featureId));
         
+        catalogVersion.catalogChanged();
         product.removeFeature(feature);
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        searchIndex.productChanged(productId);
+        return savedProduct;
     }
     
     public List<Product> findByFeatureId(Long featureId) {
@@ -131,88 +279,289 @@ public class ProductService {
     }
     
     /**
-     * Busca productos disponibles por rango de fechas y categoría opcional
+     * Busca productos disponibles por rango de fechas, categoría y característica opcionales
      * 
      * @param startDateStr Fecha de inicio del rango en formato YYYY-MM-DD
      * @param endDateStr Fecha de fin del rango en formato YYYY-MM-DD
      * @param categoryId ID de la categoría (opcional)
+     * @param featureId ID de la característica (opcional)
      * @return Lista de productos que cumplen con los criterios
      */
-    public List<Product> searchProducts(String startDateStr, String endDateStr, Long categoryId) {
-        System.out.println("DEBUG - Búsqueda de productos - startDate: " + startDateStr + 
-                ", endDate: " + endDateStr + ", categoryId: " + categoryId);
-                
-        // Validar y parsear fechas si se proporcionaron
-        LocalDate startDate = null;
-        LocalDate endDate = null;
-        
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    public List<Product> searchProducts(String startDateStr, String endDateStr, Long categoryId, Long featureId) {
+        return searchProducts(null, startDateStr, endDateStr, categoryId, featureId, null);
+    }
+
+    /**
+     * Igual que {@link #searchProducts(String, String, Long, Long)}, con búsqueda por texto y orden
+     * de los resultados.
+     *
+     * @param query Texto a buscar en nombre, descripción, categoría y características (opcional);
+     *              los resultados se ordenan por relevancia
+     * @param sort null para el orden de la consulta (o de relevancia) o "popular" para ordenar por popularidad
+     */
+    public List<Product> searchProducts(String query, String startDateStr, String endDateStr, Long categoryId, Long featureId,
+                                        String sort) {
+        String text = normalizeQuery(query);
+        validateSort(sort);
+        List<Product> results = text == null
+                ? doSearchProducts(startDateStr, endDateStr, categoryId, featureId)
+                : inOrder(searchIdsByText(text, startDateStr, endDateStr, categoryId, featureId),
+                        productRepository::findListingByIds, Product::getId);
+        return sorted(results, sort, Product::getId);
+    }
+
+    private List<Product> doSearchProducts(String startDateStr, String endDateStr, Long categoryId, Long featureId) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        LocalDate[] range = parseDateRange(startDateStr, endDateStr);
+        LocalDate startDate = range == null ? null : range[0];
+        LocalDate endDate = range == null ? null : range[1];
         
-        // Si se proporcionaron ambas fechas, validarlas
-        if (startDateStr != null && endDateStr != null) {
-            try {
-                startDate = LocalDate.parse(startDateStr, formatter);
-                endDate = LocalDate.parse(endDateStr, formatter);
-            } catch (DateTimeParseException e) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, 
-                        "Formato de fecha inválido. Usar YYYY-MM-DD");
-            }
-            
-            // Validar que el rango de fechas sea válido
-            if (startDate.isAfter(endDate)) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, 
-                        "La fecha de inicio debe ser anterior o igual a la fecha de fin");
-            }
-        } else if (startDateStr != null || endDateStr != null) {
-            // Si solo se proporcionó una fecha, exigir ambas
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, 
-                    "Debe proporcionar ambas fechas (inicio y fin) para búsqueda por fechas");
+        // Si no se proporcionaron fechas, devolver los productos que cumplen los filtros
+        if (startDate == null || endDate == null) {
+            List<Product> products = productRepository.findFiltered(categoryId, featureId);
+            recordSearch(sample, false, startDate, endDate, categoryId, featureId, "none", products.size(), products.size());
+            return products;
         }
         
-        // Obtener productos según la categoría
-        List<Product> products;
-        
-        if (categoryId != null) {
-            products = productRepository.findByCategoryId(categoryId);
+        // Filtrar por disponibilidad: con el índice cargado basta una pasada por el calendario de
+        // ocupación de cada producto; si no, una única consulta anti-join en la base de datos
+        // En la base de datos los productos se descartan dentro de la consulta y no se cuentan
+        List<Product> availableProducts;
+        int checked = -1;
+        boolean fromIndex = availabilityIndex.isReady();
+        if (fromIndex) {
+            availableProducts = new ArrayList<>(productRepository.findFiltered(categoryId, featureId));
+            checked = availableProducts.size();
+            LocalDate from = startDate;
+            LocalDate to = endDate;
+            availableProducts.removeIf(product -> !availabilityIndex.isFree(product.getId(), from, to));
         } else {
-            products = productRepository.findAll();
+            availableProducts = productRepository.findAvailableInRange(startDate, endDate, categoryId, featureId);
         }
         
-        System.out.println("DEBUG - Productos encontrados antes de filtrar por fechas: " + products.size());
+        recordSearch(sample, false, startDate, endDate, categoryId, featureId, fromIndex ? "index" : "database",
+                checked, availableProducts.size());
         
-        // Si no se proporcionaron fechas, devolver todos los productos
-        if (startDate == null || endDate == null) {
-            System.out.println("DEBUG - No se proporcionaron fechas, devolviendo todos los productos");
-            return products;
+        return availableProducts;
+    }
+
+    /**
+     * Valida y parsea el rango de fechas de una búsqueda.
+     * 
+     * @return {inicio, fin}, o null si no se proporcionó ninguna fecha
+     * @throws ResponseStatusException 400 si el formato o el rango no son válidos
+     */
+    private LocalDate[] parseDateRange(String startDateStr, String endDateStr) {
+        if (startDateStr == null && endDateStr == null) {
+            return null;
+        }
+        // Si solo se proporcionó una fecha, exigir ambas
+        if (startDateStr == null || endDateStr == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, 
+                    "Debe proporcionar ambas fechas (inicio y fin) para búsqueda por fechas");
         }
         
-        // Filtrar productos por disponibilidad
-        List<Product> availableProducts = new ArrayList<>();
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        LocalDate startDate;
+        LocalDate endDate;
+        try {
+            startDate = LocalDate.parse(startDateStr, formatter);
+            endDate = LocalDate.parse(endDateStr, formatter);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, 
+                    "Formato de fecha inválido. Usar YYYY-MM-DD");
+        }
         
-        for (Product product : products) {
-            System.out.println("DEBUG - Verificando disponibilidad para producto: " + product.getId() + " - " + product.getName());
-            
-            // Verificar si el producto está disponible para el rango de fechas
-            boolean isAvailable = bookingService.isProductAvailable(product.getId(), startDate, endDate);
-            
-            System.out.println("DEBUG - Producto " + product.getId() + " disponible: " + isAvailable);
-            
-            if (isAvailable) {
-                availableProducts.add(product);
-            }
+        // Validar que el rango de fechas sea válido
+        if (startDate.isAfter(endDate)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, 
+                    "La fecha de inicio debe ser anterior o igual a la fecha de fin");
+        }
+        return new LocalDate[] {startDate, endDate};
+    }
+
+    /**
+     * Listado reducido de productos para la grilla del frontend, con filtros opcionales de
+     * categoría y característica.
+     */
+    public List<ProductSummary> findSummaries(Long categoryId, Long featureId) {
+        return withFeatureIds(productRepository.findSummaries(categoryId, featureId));
+    }
+    
+    /**
+     * Igual que {@link #searchProducts} pero devuelve la vista reducida de cada producto.
+     */
+    public List<ProductSummary> searchSummaries(String startDateStr, String endDateStr, Long categoryId, Long featureId) {
+        return searchSummaries(null, startDateStr, endDateStr, categoryId, featureId, null);
+    }
+
+    /**
+     * Igual que {@link #searchSummaries(String, String, Long, Long)}, con búsqueda por texto y orden
+     * de los resultados (ver {@link #searchProducts(String, String, String, Long, Long, String)}).
+     */
+    public List<ProductSummary> searchSummaries(String query, String startDateStr, String endDateStr, Long categoryId,
+                                                Long featureId, String sort) {
+        String text = normalizeQuery(query);
+        validateSort(sort);
+        List<ProductSummary> results = text == null
+                ? doSearchSummaries(startDateStr, endDateStr, categoryId, featureId)
+                : withFeatureIds(inOrder(searchIdsByText(text, startDateStr, endDateStr, categoryId, featureId),
+                        productRepository::findSummariesByIds, ProductSummary::getId));
+        return sorted(results, sort, ProductSummary::getId);
+    }
+
+    private List<ProductSummary> doSearchSummaries(String startDateStr, String endDateStr, Long categoryId, Long featureId) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        LocalDate[] range = parseDateRange(startDateStr, endDateStr);
+        List<ProductSummary> summaries = productRepository.findSummaries(categoryId, featureId);
+        if (range == null) {
+            recordSearch(sample, false, null, null, categoryId, featureId, "none", summaries.size(), summaries.size());
+            return withFeatureIds(summaries);
         }
         
-        System.out.println("DEBUG - Productos disponibles después de filtrar: " + availableProducts.size());
+        LocalDate startDate = range[0];
+        LocalDate endDate = range[1];
+        List<ProductSummary> available = new ArrayList<>(summaries);
+        boolean fromIndex = availabilityIndex.isReady();
+        if (fromIndex) {
+            available.removeIf(summary -> !availabilityIndex.isFree(summary.getId(), startDate, endDate));
+        } else {
+            Set<Long> availableIds = new HashSet<>(
+                    productRepository.findAvailableIdsInRange(startDate, endDate, categoryId, featureId));
+            available.removeIf(summary -> !availableIds.contains(summary.getId()));
+        }
         
-        return availableProducts;
+        recordSearch(sample, false, startDate, endDate, categoryId, featureId, fromIndex ? "index" : "database",
+                summaries.size(), available.size());
+        return withFeatureIds(available);
+    }
+    
+    // IDs de los productos que coinciden con el texto, en orden de relevancia, filtrados por
+    // categoría y característica en el índice de búsqueda y luego por disponibilidad
+    private List<Long> searchIdsByText(String query, String startDateStr, String endDateStr, Long categoryId, Long featureId) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        LocalDate[] range = parseDateRange(startDateStr, endDateStr);
+        List<Long> productIds = new ArrayList<>(searchIndex.search(query, categoryId, featureId));
+        int matched = productIds.size();
+        if (range == null) {
+            recordSearch(sample, true, null, null, categoryId, featureId, "none", matched, matched);
+            return productIds;
+        }
+
+        LocalDate startDate = range[0];
+        LocalDate endDate = range[1];
+        boolean fromIndex = availabilityIndex.isReady();
+        if (fromIndex) {
+            productIds.removeIf(productId -> !availabilityIndex.isFree(productId, startDate, endDate));
+        } else if (!productIds.isEmpty()) {
+            Set<Long> availableIds = new HashSet<>(
+                    productRepository.findAvailableIdsInRange(startDate, endDate, categoryId, featureId));
+            productIds.removeIf(productId -> !availableIds.contains(productId));
+        }
+        recordSearch(sample, true, startDate, endDate, categoryId, featureId, fromIndex ? "index" : "database",
+                matched, productIds.size());
+        return productIds;
+    }
+
+    // Carga las filas de los IDs y las devuelve en ese orden, omitiendo las que ya no existen
+    private static <T> List<T> inOrder(List<Long> ids, Function<Collection<Long>, List<T>> loader, Function<T, Long> idOf) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, T> byId = new HashMap<>();
+        for (T row : loader.apply(ids)) {
+            byId.put(idOf.apply(row), row);
+        }
+        List<T> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            T row = byId.get(id);
+            if (row != null) {
+                ordered.add(row);
+            }
+        }
+        return ordered;
+    }
+
+    // Una búsqueda vacía equivale a no buscar por texto
+    private static String normalizeQuery(String query) {
+        if (query == null || query.isBlank()) {
+            return null;
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "La búsqueda no puede superar los " + MAX_QUERY_LENGTH + " caracteres");
+        }
+        return query;
+    }
+
+    private static void validateSort(String sort) {
+        if (sort != null && !SORT_POPULAR.equals(sort)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Orden no válido: " + sort + ". Usar " + SORT_POPULAR);
+        }
+    }
+
+    // Con sort=popular se reordena en memoria según el ranking, sin consultas adicionales
+    private <T> List<T> sorted(List<T> results, String sort, Function<T, Long> idOf) {
+        return sort == null ? results : popularityRanking.sortByPopularity(results, idOf);
+    }
+
+    // Completa los IDs de características con una sola consulta para todos los productos; las
+    // colecciones no pueden formar parte de una expresión de constructor JPQL
+    private List<ProductSummary> withFeatureIds(List<ProductSummary> summaries) {
+        if (summaries.isEmpty()) {
+            return summaries;
+        }
+        Map<Long, ProductSummary> byId = new HashMap<>();
+        for (ProductSummary summary : summaries) {
+            byId.put(summary.getId(), summary);
+        }
+        for (Object[] row : productRepository.findFeatureIdsByProductIds(byId.keySet())) {
+            byId.get((Long) row[0]).getFeatureIds().add((Long) row[1]);
+        }
+        return summaries;
+    }
+
+    /**
+     * Registra la duración de la búsqueda (autobooking.search, por presencia de fechas y de texto y
+     * origen de la disponibilidad) y los productos revisados por búsqueda (autobooking.search.products.checked).
+     *
+     * @param checked Productos revisados en la aplicación, o -1 si los filtró la base de datos
+     */
+    private void recordSearch(Timer.Sample sample, boolean text, LocalDate startDate, LocalDate endDate, Long categoryId,
+                              Long featureId, String availabilitySource, int checked, int results) {
+        String dates = startDate == null ? "without" : "with";
+        String textTag = text ? "with" : "without";
+        sample.stop(searchTimers.computeIfAbsent(dates + " " + textTag + " " + availabilitySource,
+                key -> Timer.builder("autobooking.search")
+                        .description("Duración de las búsquedas de productos")
+                        .tag("dates", dates)
+                        .tag("text", textTag)
+                        .tag("source", availabilitySource)
+                        .register(meterRegistry)));
+        if (checked >= 0) {
+            checkedSummaries.computeIfAbsent(dates, key -> DistributionSummary.builder("autobooking.search.products.checked")
+                            .description("Productos revisados por búsqueda")
+                            .baseUnit("products")
+                            .tag("dates", dates)
+                            .register(meterRegistry))
+                    .record(checked);
+        }
+
+        if (logger.isDebugEnabled() && searchLogSampler.sample()) {
+            logger.debug("product.search text={} startDate={} endDate={} categoryId={} featureId={} availabilitySource={} results={}",
+                    text, startDate, endDate, categoryId, featureId, availabilitySource, results);
+        }
     }
 
+    @Transactional
     public Product updateProductPrice(Long id, BigDecimal newPrice) {
         Product product = findById(id);
         if (product == null) {
             throw new NoSuchElementException("Producto no encontrado con ID: " + id);
         }
+        catalogVersion.catalogChanged();
         product.setPrice(newPrice);
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        return savedProduct;
     }
 } 
\ No newline at end of file
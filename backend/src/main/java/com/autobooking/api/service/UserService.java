@@ -1,15 +1,14 @@
 package com.autobooking.api.service;
 
-import com.autobooking.api.model.Product;
 import com.autobooking.api.model.User;
-import com.autobooking.api.repository.ProductRepository;
 import com.autobooking.api.repository.UserRepository;
 import com.autobooking.api.security.JwtUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.*;
@@ -18,8 +17,9 @@ import java.util.regex.Pattern;
 @Service
 public class UserService {
 
+    private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+
     private final UserRepository userRepository;
-    private final ProductRepository productRepository;
     private final BCryptPasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     
@@ -30,10 +30,8 @@ public class UserService {
     private static final Pattern PASSWORD_PATTERN = Pattern.compile("^(?=.*[A-Za-z])(?=.*\\d)[A-Za-z\\d]{6,}$");
 
     @Autowired
-    public UserService(UserRepository userRepository, ProductRepository productRepository, 
-                      BCryptPasswordEncoder passwordEncoder, JwtUtil jwtUtil) {
+    public UserService(UserRepository userRepository, BCryptPasswordEncoder passwordEncoder, JwtUtil jwtUtil) {
         this.userRepository = userRepository;
-        this.productRepository = productRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtUtil = jwtUtil;
     }
@@ -88,15 +86,11 @@ public class UserService {
         
         User user = userOptional.get();
         
-        System.out.println("Intentando autenticar usuario: " + email);
-        System.out.println("Contraseña proporcionada: " + password);
-        System.out.println("Hash almacenado: " + user.getPassword());
-        
         // Verificar la contraseña
         boolean matches = passwordEncoder.matches(password, user.getPassword());
-        System.out.println("¿Las contraseñas coinciden? " + matches);
         
         if (!matches) {
+            logger.info("auth.failed userId={} reason=bad_password", user.getId());
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Contraseña incorrecta");
         }
         
@@ -132,70 +126,6 @@ public class UserService {
                         "Usuario no encontrado con ID: " + userId));
     }
     
-    /**
-     * Añade un producto a favoritos de un usuario.
-     * 
-     * @param userId ID del usuario
-     * @param productId ID del producto a añadir a favoritos
-     * @return el producto añadido a favoritos
-     * @throws ResponseStatusException si el usuario o producto no existe
-     */
-    @Transactional
-    public Product addFavorite(Long userId, Long productId) {
-        User user = getUserById(userId);
-        
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, 
-                        "Producto no encontrado con ID: " + productId));
-        
-        user.addFavorite(product);
-        userRepository.save(user);
-        
-        return product;
-    }
-    
-    /**
-     * Elimina un producto de favoritos de un usuario.
-     * 
-     * @param userId ID del usuario
-     * @param productId ID del producto a eliminar de favoritos
-     * @throws ResponseStatusException si el usuario no existe
-     */
-    @Transactional
-    public void removeFavorite(Long userId, Long productId) {
-        User user = getUserById(userId);
-        
-        productRepository.findById(productId).ifPresent(product -> {
-            user.removeFavorite(product);
-            userRepository.save(user);
-        });
-    }
-    
-    /**
-     * Obtiene todos los productos favoritos de un usuario.
-     * 
-     * @param userId ID del usuario
-     * @return lista de productos favoritos
-     * @throws ResponseStatusException si el usuario no existe
-     */
-    public Set<Product> getFavorites(Long userId) {
-        User user = getUserById(userId);
-        return user.getFavorites();
-    }
-    
-    /**
-     * Verifica si un producto está en los favoritos de un usuario.
-     * 
-     * @param userId ID del usuario
-     * @param productId ID del producto
-     * @return true si el producto está en favoritos, false en caso contrario
-     * @throws ResponseStatusException si el usuario no existe
-     */
-    public boolean isFavorite(Long userId, Long productId) {
-        User user = getUserById(userId);
-        return user.hasFavorite(productId);
-    }
-    
     private boolean isValidEmail(String email) {
         return email != null && EMAIL_PATTERN.matcher(email).matches();
     }
@@ -0,0 +1,119 @@
+package com.autobooking.api.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector de CSV (RFC 4180) que entrega un registro por llamada, sin cargar el archivo completo:
+ * campos separados por comas, entre comillas dobles si contienen comas, comillas o saltos de
+ * línea, y comillas escapadas duplicándolas ("").
+ *
+ * Un registro no puede superar maxRecordChars caracteres; así una comilla sin cerrar no hace
+ * que se lea el resto del archivo en memoria.
+ */
+public final class CsvReader {
+
+    private final Reader reader;
+    private final int maxRecordChars;
+    private long line = 1;
+    private long recordLine;
+    private int pending = -2;
+
+    public CsvReader(Reader reader, int maxRecordChars) {
+        this.reader = reader;
+        this.maxRecordChars = maxRecordChars;
+    }
+
+    /**
+     * Lee el siguiente registro.
+     *
+     * @return Campos del registro, o null al llegar al final
+     * @throws IllegalArgumentException si el registro es demasiado largo o tiene comillas sin cerrar
+     */
+    public List<String> next() throws IOException {
+        int c = read();
+        // Saltar líneas vacías entre registros
+        while (c == '\r' || c == '\n') {
+            c = read();
+        }
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int length = 0;
+        boolean quoted = false;
+        while (true) {
+            if (++length > maxRecordChars) {
+                throw new IllegalArgumentException("El registro de la línea " + recordLine + " supera "
+                        + maxRecordChars + " caracteres");
+            }
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Comillas sin cerrar en el registro de la línea " + recordLine);
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        unread(next);
+                    }
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * Línea del archivo (desde 1) en la que empieza el último registro leído.
+     */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    private int read() throws IOException {
+        int c;
+        if (pending != -2) {
+            c = pending;
+            pending = -2;
+        } else {
+            c = reader.read();
+        }
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+
+    private void unread(int c) {
+        if (c == '\n') {
+            line--;
+        }
+        pending = c;
+    }
+}
@@ -0,0 +1,27 @@
+package com.autobooking.api.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Muestreo de trazas para endpoints de alto tráfico: con una tasa de 1.0 se registran todas
+ * las solicitudes, con 0.01 aproximadamente una de cada cien y con 0 ninguna.
+ *
+ * Se usa siempre detrás de la verificación de nivel del logger, por ejemplo
+ * {@code if (logger.isDebugEnabled() && sampler.sample())}, de modo que con el nivel
+ * desactivado no se evalúa el muestreo ni se construye el mensaje.
+ */
+public final class LogSampler {
+
+    private final double rate;
+
+    public LogSampler(double rate) {
+        this.rate = rate;
+    }
+
+    public boolean sample() {
+        if (rate >= 1.0) {
+            return true;
+        }
+        return rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+}
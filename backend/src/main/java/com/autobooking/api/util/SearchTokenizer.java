@@ -0,0 +1,46 @@
+package com.autobooking.api.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Divide un texto en términos para la búsqueda de productos: minúsculas, sin tildes ni diéresis
+ * ("Sedán" y "sedan" dan el mismo término; la ñ queda como n) y separados por cualquier carácter
+ * que no sea letra ni dígito. Se descartan los artículos, preposiciones y conjunciones más comunes
+ * del español.
+ *
+ * Los textos indexados y las consultas pasan por el mismo tokenizador, así que cualquier cambio
+ * aquí requiere reconstruir el índice (se hace al arrancar).
+ */
+public final class SearchTokenizer {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "al", "con", "de", "del", "el", "en", "la", "las", "lo", "los", "o", "para", "por",
+            "se", "sin", "su", "un", "una", "y");
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * Términos del texto en su orden de aparición, con repetidos.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        for (String term : SEPARATORS.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!term.isEmpty() && !STOP_WORDS.contains(term)) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,61 @@
+-- Esquema inicial: las tablas que antes creaba Hibernate con ddl-auto=update a partir de las
+-- entidades. Los índices y la restricción de solapamiento de reservas están en V3.
+
+CREATE TABLE categories (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE
+);
+
+CREATE TABLE features (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE,
+    icon VARCHAR(255)
+);
+
+CREATE TABLE products (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    description TEXT NOT NULL,
+    category_id BIGINT REFERENCES categories (id),
+    price NUMERIC(10, 2) NOT NULL
+);
+
+CREATE TABLE product_images (
+    product_id BIGINT NOT NULL REFERENCES products (id),
+    image TEXT
+);
+
+CREATE TABLE product_features (
+    product_id BIGINT NOT NULL REFERENCES products (id),
+    feature_id BIGINT NOT NULL REFERENCES features (id),
+    PRIMARY KEY (product_id, feature_id)
+);
+
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    first_name VARCHAR(255) NOT NULL,
+    last_name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    is_admin BOOLEAN NOT NULL DEFAULT FALSE
+);
+
+CREATE TABLE user_favorites (
+    user_id BIGINT NOT NULL REFERENCES users (id),
+    product_id BIGINT NOT NULL REFERENCES products (id),
+    PRIMARY KEY (user_id, product_id)
+);
+
+-- Los IDs de reservas se asignan en bloques de 50 (allocationSize de Booking)
+CREATE SEQUENCE bookings_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE bookings (
+    id BIGINT PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users (id),
+    product_id BIGINT NOT NULL REFERENCES products (id),
+    start_date DATE NOT NULL,
+    end_date DATE NOT NULL,
+    total_price NUMERIC(10, 2),
+    booking_status VARCHAR(255) CHECK (booking_status IN ('PENDING', 'CONFIRMED', 'CANCELLED', 'COMPLETED')),
+    created_at DATE
+);
@@ -0,0 +1,65 @@
+-- Índices declarados en las entidades y restricción de solapamiento de reservas. Es idempotente
+-- porque en las bases creadas antes de las migraciones (línea base en la versión 2) Hibernate
+-- ya pudo haber creado parte de estos objetos.
+
+CREATE INDEX IF NOT EXISTS idx_bookings_product_status_dates ON bookings (product_id, booking_status, start_date, end_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_user_id ON bookings (user_id, id);
+CREATE INDEX IF NOT EXISTS idx_products_category_id ON products (category_id);
+CREATE INDEX IF NOT EXISTS idx_product_images_product_id ON product_images (product_id);
+CREATE INDEX IF NOT EXISTS idx_product_features_feature_id ON product_features (feature_id, product_id);
+CREATE INDEX IF NOT EXISTS idx_user_favorites_product_id ON user_favorites (product_id, user_id);
+
+-- btree_gist permite combinar la igualdad de product_id con el solapamiento de rangos en un
+-- mismo índice GiST
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Las bases anteriores a las migraciones pueden tener reservas activas ya solapadas, con las que
+-- la restricción no podría crearse. No se corrigen aquí: cuál de las reservas se conserva es una
+-- decisión del negocio. La migración se detiene listando los pares en conflicto; tras cancelar o
+-- mover una reserva de cada par, el siguiente arranque vuelve a aplicar V3 (la transacción
+-- fallida no deja cambios).
+DO $$
+DECLARE
+    conflict_count BIGINT;
+    conflict_list TEXT;
+BEGIN
+    WITH conflicts AS (
+        SELECT a.id AS first_id, b.id AS second_id, a.product_id
+        FROM bookings a
+        JOIN bookings b ON b.product_id = a.product_id AND b.id > a.id
+            AND b.start_date <= a.end_date AND b.end_date >= a.start_date
+        WHERE a.booking_status IN ('PENDING', 'CONFIRMED')
+          AND b.booking_status IN ('PENDING', 'CONFIRMED')
+    )
+    SELECT COUNT(*),
+           string_agg(format('%s y %s (producto %s)', first_id, second_id, product_id), ', '
+                      ORDER BY first_id, second_id) FILTER (WHERE rn <= 50)
+    INTO conflict_count, conflict_list
+    FROM (SELECT *, row_number() OVER (ORDER BY first_id, second_id) AS rn FROM conflicts) numbered;
+
+    IF conflict_count > 0 THEN
+        RAISE EXCEPTION 'No se puede crear bookings_no_overlap: % pares de reservas activas se solapan. Primeros pares (IDs de reserva): %',
+            conflict_count, conflict_list
+            USING HINT = 'Cancela (booking_status = ''CANCELLED'') o cambia las fechas de una reserva de cada par y vuelve a arrancar la aplicación.';
+    END IF;
+END
+$$;
+
+-- Dos reservas activas (pendientes o confirmadas, igual que BookingRepository.existsOverlappingBooking
+-- y el índice de disponibilidad) de un mismo producto no pueden solaparse (rangos con los extremos
+-- incluidos). Respalda en la base de datos la verificación que hace BookingService bajo el bloqueo
+-- del producto, y su índice GiST sirve las consultas de solapamiento escritas con
+-- daterange(start_date, end_date, '[]') && ...
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'bookings_no_overlap') THEN
+        ALTER TABLE bookings ADD CONSTRAINT bookings_no_overlap
+            EXCLUDE USING gist (product_id WITH =, daterange(start_date, end_date, '[]') WITH &&)
+            WHERE (booking_status IN ('PENDING', 'CONFIRMED'));
+    END IF;
+END
+$$;
+
+-- En las bases anteriores a las migraciones las reservas pudieron tener IDs de IDENTITY; se
+-- adelanta la secuencia por encima de las existentes, sin retrocederla nunca
+SELECT setval('bookings_seq', GREATEST((SELECT last_value FROM bookings_seq), (SELECT COALESCE(MAX(id), 0) FROM bookings) + 50));
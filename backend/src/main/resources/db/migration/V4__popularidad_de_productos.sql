@@ -0,0 +1,8 @@
+-- Puntajes de popularidad que PopularityRanking guarda periódicamente. Sin clave foránea hacia
+-- products: los puntajes de un producto eliminado se descartan en la siguiente carga o guardado.
+
+CREATE TABLE product_popularity (
+    product_id BIGINT PRIMARY KEY,
+    score DOUBLE PRECISION NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
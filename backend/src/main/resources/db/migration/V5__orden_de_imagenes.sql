@@ -0,0 +1,15 @@
+-- Posición de cada imagen en la lista del producto (Product.images con @OrderColumn). La
+-- imagen 0 es la miniatura de los listados. Las filas existentes se numeran en el orden físico
+-- de la tabla, que es el orden en que Hibernate las devolvía hasta ahora.
+
+ALTER TABLE product_images ADD COLUMN IF NOT EXISTS image_order INTEGER NOT NULL DEFAULT 0;
+
+UPDATE product_images pi
+SET image_order = numbered.position
+FROM (SELECT ctid, row_number() OVER (PARTITION BY product_id ORDER BY ctid) - 1 AS position
+      FROM product_images) numbered
+WHERE pi.ctid = numbered.ctid;
+
+-- El índice por (producto, posición) reemplaza al de solo producto
+DROP INDEX IF EXISTS idx_product_images_product_id;
+CREATE INDEX IF NOT EXISTS idx_product_images_product_order ON product_images (product_id, image_order);
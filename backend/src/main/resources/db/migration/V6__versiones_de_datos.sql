@@ -0,0 +1,11 @@
+-- Versiones de los datos que CatalogVersion usa como ETag: 'catalog' para productos, categorías y
+-- características, y 'availability-<id de producto>' para las reservas de cada producto. Se
+-- incrementan en la misma transacción que el cambio, así que todas las instancias ven la misma
+-- versión. Las filas de disponibilidad se crean con la primera reserva del producto.
+
+CREATE TABLE data_versions (
+    name VARCHAR(100) PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+
+INSERT INTO data_versions (name, version) VALUES ('catalog', 0);
@@ -0,0 +1,7 @@
+-- Limpiar los datos de ejemplo manteniendo la estructura, antes de volver a cargar
+-- db/migration/V2__datos_iniciales.sql (arranque con --init-db)
+DELETE FROM product_images;
+DELETE FROM product_features;
+DELETE FROM products;
+DELETE FROM categories;
+DELETE FROM users;
@@ -0,0 +1,7 @@
+-- Numera las imágenes de los datos de ejemplo recién cargados (los INSERT de
+-- db/migration/V2__datos_iniciales.sql no indican image_order), igual que la migración V5
+UPDATE product_images pi
+SET image_order = numbered.position
+FROM (SELECT ctid, row_number() OVER (PARTITION BY product_id ORDER BY ctid) - 1 AS position
+      FROM product_images) numbered
+WHERE pi.ctid = numbered.ctid;
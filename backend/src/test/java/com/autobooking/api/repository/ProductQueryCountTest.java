@@ -0,0 +1,137 @@
+package com.autobooking.api.repository;
+
+import com.autobooking.api.model.Category;
+import com.autobooking.api.model.Feature;
+import com.autobooking.api.model.Product;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Cantidad de sentencias SQL (Statistics.getPrepareStatementCount) de los listados y el detalle
+ * de productos, con las cachés vacías y serializando la respuesta completa: no debe crecer con la
+ * cantidad de productos, así que no hay consultas N+1 por imágenes, características o categoría.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductQueryCountTest {
+
+    private static final int SMALL_FLEET = 5;
+    private static final int LARGE_FLEET = 60;
+
+    // Consulta de productos, una por colección (imágenes y características, SUBSELECT) y, en el
+    // listado por característica, la verificación de que la característica existe
+    private static final long MAX_LISTING_STATEMENTS = 4;
+    private static final long MAX_DETAIL_STATEMENTS = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private FeatureRepository featureRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Category category;
+    private List<Feature> features;
+
+    @BeforeEach
+    void createCatalog() {
+        category = categoryRepository.save(new Category("Consultas " + UUID.randomUUID()));
+        features = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            features.add(featureRepository.save(new Feature("Consultas " + UUID.randomUUID(), "icono")));
+        }
+    }
+
+    @Test
+    void listingsRunTheSameStatementsForAnyFleetSize() throws Exception {
+        List<String> urls = List.of(
+                "/api/products",
+                "/api/products/category/" + category.getId(),
+                "/api/products/features/" + features.get(0).getId());
+
+        addProducts(SMALL_FLEET);
+        List<Long> small = new ArrayList<>();
+        for (String url : urls) {
+            small.add(statementsFor(url));
+        }
+
+        addProducts(LARGE_FLEET - SMALL_FLEET);
+        for (int i = 0; i < urls.size(); i++) {
+            long large = statementsFor(urls.get(i));
+            assertEquals(small.get(i), large, urls.get(i) + " con " + SMALL_FLEET + " y " + LARGE_FLEET + " productos");
+            assertTrue(large <= MAX_LISTING_STATEMENTS, urls.get(i) + " ejecutó " + large + " sentencias");
+        }
+
+        mockMvc.perform(get("/api/products/category/" + category.getId()))
+                .andExpect(jsonPath("$.length()").value(LARGE_FLEET))
+                .andExpect(jsonPath("$[0].images.length()").value(2))
+                .andExpect(jsonPath("$[0].features.length()").value(features.size()));
+    }
+
+    @Test
+    void detailRunsAFixedNumberOfStatements() throws Exception {
+        Long productId = addProducts(LARGE_FLEET).get(0);
+
+        long statements = statementsFor("/api/products/" + productId);
+
+        assertTrue(statements <= MAX_DETAIL_STATEMENTS, "el detalle ejecutó " + statements + " sentencias");
+    }
+
+    // Sentencias de una petición con las cachés de segundo nivel y de consultas vacías
+    private long statementsFor(String url) throws Exception {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private List<Long> addProducts(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Product product = new Product("Auto " + UUID.randomUUID(), "Descripción",
+                    new ArrayList<>(List.of("/api/images/portada-" + i, "/api/images/interior-" + i)),
+                    category, new BigDecimal("50.00"));
+            Long productId = productRepository.save(product).getId();
+            // Las características ya guardadas no se pueden asociar en cascada desde un producto nuevo
+            for (Feature feature : features) {
+                jdbcTemplate.update("INSERT INTO product_features (product_id, feature_id) VALUES (?, ?)", productId, feature.getId());
+            }
+            ids.add(productId);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,62 @@
+package com.autobooking.api.repository;
+
+import com.autobooking.api.dto.ProductSummary;
+import com.autobooking.api.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * La miniatura de los resúmenes es la primera imagen de la lista del producto, no la menor URL.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductSummaryThumbnailTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void thumbnailIsTheFirstImageInListOrder() {
+        Long withImages = save(List.of("/api/images/zz-portada", "/api/images/aa-interior", "/api/images/mm-lateral"));
+        Long withoutImages = save(List.of());
+
+        List<ProductSummary> summaries = productRepository.findSummariesByIds(List.of(withImages, withoutImages));
+
+        for (ProductSummary summary : summaries) {
+            if (summary.getId().equals(withImages)) {
+                assertEquals("/api/images/zz-portada", summary.getThumbnail());
+            } else {
+                assertNull(summary.getThumbnail());
+            }
+        }
+        assertEquals(2, summaries.size());
+    }
+
+    @Test
+    void reorderingTheImagesChangesTheThumbnail() {
+        Long productId = save(List.of("/api/images/primera", "/api/images/segunda"));
+        Product product = productRepository.findById(productId).orElseThrow();
+        product.setImages(new ArrayList<>(List.of("/api/images/segunda", "/api/images/primera")));
+        productRepository.save(product);
+
+        ProductSummary summary = productRepository.findSummariesByIds(List.of(productId)).get(0);
+
+        assertEquals("/api/images/segunda", summary.getThumbnail());
+    }
+
+    private Long save(List<String> images) {
+        Product product = new Product("Auto " + UUID.randomUUID(), "Auto de la prueba de miniaturas",
+                new ArrayList<>(images), null, new BigDecimal("50.00"));
+        return productRepository.save(product).getId();
+    }
+}
@@ -0,0 +1,192 @@
+package com.autobooking.api.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Planes de consulta sobre PostgreSQL: aplica las migraciones, genera un catálogo con reservas,
+ * usuarios y favoritos, actualiza las estadísticas y ejecuta EXPLAIN sobre el SQL equivalente a
+ * las consultas de BookingRepository y ProductRepository que deben resolverse con índices. Cada
+ * consulta falla si su plan recorre completa (Seq Scan) una de las tablas de CHECKED_TABLES; las
+ * tablas pequeñas (categorías, características) pueden recorrerse sin problema.
+ *
+ * La base de datos es la indicada en test.postgres.url (con test.postgres.user y
+ * test.postgres.password, por defecto postgres/postgres), que se vacía antes de empezar, o si no
+ * un contenedor postgres:16-alpine de Testcontainers. Sin ninguna de las dos el test se omite.
+ */
+class QueryPlanTest {
+
+    private static final Set<String> CHECKED_TABLES = Set.of("bookings", "user_favorites", "product_features", "product_images");
+
+    private static final int PRODUCTS = 5_000;
+    private static final int BOOKINGS_PER_PRODUCT = 40;
+    private static final int FEATURES = 12;
+    private static final int USERS = 20_000;
+    private static final int FAVORITES_PER_USER = 5;
+
+    private static PostgreSQLContainer<?> container;
+    private static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void createDatabase() {
+        String url = System.getProperty("test.postgres.url");
+        String username = System.getProperty("test.postgres.user", "postgres");
+        String password = System.getProperty("test.postgres.password", "postgres");
+        if (url == null || url.isBlank()) {
+            Assumptions.assumeTrue(DockerClientFactory.instance().isDockerAvailable(),
+                    "Sin test.postgres.url ni Docker disponible: no se verifican los planes de consulta");
+            container = new PostgreSQLContainer<>("postgres:16-alpine");
+            container.start();
+            url = container.getJdbcUrl();
+            username = container.getUsername();
+            password = container.getPassword();
+        }
+
+        Flyway flyway = Flyway.configure()
+                .dataSource(url, username, password)
+                .locations("classpath:db/migration")
+                .cleanDisabled(false)
+                .load();
+        flyway.clean();
+        flyway.migrate();
+
+        jdbc = new JdbcTemplate(new DriverManagerDataSource(url, username, password));
+        generateFleet();
+        jdbc.execute("ANALYZE");
+    }
+
+    @AfterAll
+    static void stopContainer() {
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    @TestFactory
+    Stream<DynamicTest> plansUseIndexes() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        return cases().stream().map(planCase -> DynamicTest.dynamicTest(planCase.name, () -> {
+            String json = jdbc.queryForObject("EXPLAIN (FORMAT JSON) " + planCase.sql, String.class, planCase.params);
+            JsonNode plan = objectMapper.readTree(json).get(0).get("Plan");
+            List<String> seqScans = new ArrayList<>();
+            collectSeqScans(plan, seqScans);
+            assertTrue(seqScans.isEmpty(), () -> planCase.name + " recorre completa " + String.join(", ", seqScans)
+                    + ":\n" + plan.toPrettyString());
+        }));
+    }
+
+    // Catálogo con el volumen suficiente para que el planificador prefiera los índices cuando existen:
+    // reservas no solapadas de 3 días cada 10, de las que una de cada cuatro está cancelada
+    private static void generateFleet() {
+        jdbc.update("INSERT INTO products (name, description, category_id, price) " +
+                "SELECT 'Vehículo ' || g, 'Descripción del vehículo ' || g, (SELECT MIN(id) FROM categories) + g % 6, 50 + g % 100 " +
+                "FROM generate_series(1, ?) g", PRODUCTS);
+        jdbc.update("INSERT INTO product_images (product_id, image_order, image) " +
+                "SELECT p.id, i, '/api/images/' || md5(p.id || '-' || i) FROM products p, generate_series(0, 2) i");
+        jdbc.update("INSERT INTO features (name) SELECT 'Característica ' || g FROM generate_series(1, ?) g", FEATURES);
+        jdbc.update("INSERT INTO product_features (product_id, feature_id) " +
+                "SELECT p.id, f.id FROM products p JOIN features f ON (p.id + f.id) % 3 = 0");
+        jdbc.update("INSERT INTO users (first_name, last_name, email, password) " +
+                "SELECT 'Usuario', 'Plan ' || g, 'plan' || g || '@example.com', 'x' FROM generate_series(1, ?) g", USERS);
+        jdbc.update("INSERT INTO user_favorites (user_id, product_id) " +
+                "SELECT DISTINCT u.id, (SELECT MIN(id) FROM products) + (u.id * 7919 + i * 104729) % ? " +
+                "FROM users u, generate_series(1, ?) i", PRODUCTS, FAVORITES_PER_USER);
+        jdbc.update("INSERT INTO bookings (id, user_id, product_id, start_date, end_date, total_price, booking_status, created_at) " +
+                "SELECT row_number() OVER (), (SELECT MIN(id) FROM users) + (p.id * 31 + k) % ?, p.id, " +
+                "CURRENT_DATE - 200 + k * 10, CURRENT_DATE - 198 + k * 10, 150, " +
+                "(ARRAY['PENDING', 'CONFIRMED', 'COMPLETED', 'CANCELLED'])[1 + (p.id + k) % 4], CURRENT_DATE " +
+                "FROM products p, generate_series(0, ? - 1) k", USERS, BOOKINGS_PER_PRODUCT);
+        jdbc.execute("SELECT setval('bookings_seq', (SELECT MAX(id) FROM bookings))");
+    }
+
+    private static List<PlanCase> cases() {
+        List<Long> productIds = jdbc.queryForList(
+                "SELECT DISTINCT product_id FROM bookings ORDER BY product_id LIMIT 3", Long.class);
+        Long userId = jdbc.queryForObject("SELECT MIN(user_id) FROM user_favorites", Long.class);
+        Long productId = productIds.get(0);
+        Date from = Date.valueOf(LocalDate.now());
+        Date to = Date.valueOf(LocalDate.now().plusDays(7));
+
+        List<PlanCase> cases = new ArrayList<>();
+        cases.add(new PlanCase("BookingRepository.existsOverlappingBooking",
+                "SELECT COUNT(b.id) > 0 FROM bookings b WHERE b.product_id = ? AND b.booking_status IN ('PENDING', 'CONFIRMED') " +
+                "AND b.start_date <= ? AND b.end_date >= ?",
+                productId, to, from));
+        cases.add(new PlanCase("BookingRepository.findRangesForProducts",
+                "SELECT b.product_id, b.start_date, b.end_date FROM bookings b WHERE b.product_id IN (?, ?, ?) " +
+                "AND b.booking_status IN ('PENDING', 'CONFIRMED') AND b.start_date <= ? AND b.end_date >= ?",
+                productIds.get(0), productIds.get(1), productIds.get(2), to, from));
+        cases.add(new PlanCase("BookingRepository.findActiveBookingsByProductId",
+                "SELECT b.* FROM bookings b WHERE b.product_id = ? AND b.booking_status <> 'CANCELLED' " +
+                "AND b.end_date >= CURRENT_DATE AND b.booking_status IN ('PENDING', 'CONFIRMED') ORDER BY b.start_date",
+                productId));
+        cases.add(new PlanCase("BookingRepository.findByProductId",
+                "SELECT b.* FROM bookings b WHERE b.product_id = ?",
+                productId));
+        cases.add(new PlanCase("BookingRepository.findByUserIdPageAfter",
+                "SELECT b.* FROM bookings b WHERE b.user_id = ? AND b.id > ? ORDER BY b.id LIMIT 51",
+                userId, 0L));
+        cases.add(new PlanCase("ProductRepository.findFavoritesPageAfter",
+                "SELECT p.* FROM users u JOIN user_favorites uf ON uf.user_id = u.id JOIN products p ON p.id = uf.product_id " +
+                "WHERE u.id = ? AND p.id > ? ORDER BY p.id LIMIT 51",
+                userId, 0L));
+        // Al eliminar un producto se borran sus filas de favoritos
+        cases.add(new PlanCase("user_favorites por producto",
+                "DELETE FROM user_favorites WHERE product_id = ?",
+                productId));
+        cases.add(new PlanCase("ProductRepository.findFeatureIdsByProductIds",
+                "SELECT pf.product_id, pf.feature_id FROM product_features pf WHERE pf.product_id IN (?, ?, ?)",
+                productIds.get(0), productIds.get(1), productIds.get(2)));
+        // Carga de las imágenes de un bloque de productos (FetchMode.SUBSELECT / @BatchSize)
+        cases.add(new PlanCase("product_images por producto",
+                "SELECT pi.product_id, pi.image_order, pi.image FROM product_images pi WHERE pi.product_id IN (?, ?, ?)",
+                productIds.get(0), productIds.get(1), productIds.get(2)));
+        return cases;
+    }
+
+    private static void collectSeqScans(JsonNode node, List<String> seqScans) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            String relation = node.path("Relation Name").asText();
+            if (CHECKED_TABLES.contains(relation)) {
+                seqScans.add(relation);
+            }
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSeqScans(child, seqScans);
+        }
+    }
+
+    /**
+     * Consulta a verificar: nombre del método de repositorio que representa, SQL y parámetros.
+     */
+    private static final class PlanCase {
+        final String name;
+        final String sql;
+        final Object[] params;
+
+        PlanCase(String name, String sql, Object... params) {
+            this.name = name;
+            this.sql = sql;
+            this.params = params;
+        }
+    }
+}
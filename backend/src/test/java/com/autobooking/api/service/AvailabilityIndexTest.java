@@ -0,0 +1,82 @@
+package com.autobooking.api.service;
+
+import com.autobooking.api.repository.BookingRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AvailabilityIndexTest {
+
+    private static final Long PRODUCT_ID = 7L;
+
+    private final LocalDate today = LocalDate.now();
+    // Último día cubierto por el calendario de ocupación
+    private final LocalDate horizonEnd = LocalDate.ofEpochDay(
+            OccupancyCalendar.originFor(today.toEpochDay()) + OccupancyCalendar.HORIZON_DAYS - 1);
+
+    @Test
+    void bookingAcrossTheHorizonIsOneRange() {
+        AvailabilityIndex index = indexWith(
+                booking(1L, horizonEnd.minusDays(5), horizonEnd.plusDays(10)));
+
+        List<LocalDate[]> ranges = index.getUnavailableRanges(PRODUCT_ID, today);
+
+        assertEquals(1, ranges.size());
+        assertRange(horizonEnd.minusDays(5), horizonEnd.plusDays(10), ranges.get(0));
+    }
+
+    @Test
+    void bookingsBeyondTheHorizonAreSortedAndMerged() {
+        AvailabilityIndex index = indexWith(
+                booking(1L, today.plusDays(3), today.plusDays(4)),
+                booking(2L, horizonEnd.plusDays(25), horizonEnd.plusDays(40)),
+                booking(3L, horizonEnd.plusDays(20), horizonEnd.plusDays(30)),
+                // Contigua a la anterior: se une con ella
+                booking(4L, horizonEnd.plusDays(41), horizonEnd.plusDays(45)),
+                booking(5L, horizonEnd.plusDays(60), horizonEnd.plusDays(61)));
+
+        List<LocalDate[]> ranges = index.getUnavailableRanges(PRODUCT_ID, today);
+
+        assertEquals(3, ranges.size());
+        assertRange(today.plusDays(3), today.plusDays(4), ranges.get(0));
+        assertRange(horizonEnd.plusDays(20), horizonEnd.plusDays(45), ranges.get(1));
+        assertRange(horizonEnd.plusDays(60), horizonEnd.plusDays(61), ranges.get(2));
+    }
+
+    @Test
+    void rangesStartAtTheRequestedDayBeyondTheHorizon() {
+        AvailabilityIndex index = indexWith(
+                booking(1L, horizonEnd.plusDays(1), horizonEnd.plusDays(10)),
+                booking(2L, horizonEnd.plusDays(12), horizonEnd.plusDays(14)));
+
+        List<LocalDate[]> ranges = index.getUnavailableRanges(PRODUCT_ID, horizonEnd.plusDays(5));
+
+        assertEquals(2, ranges.size());
+        assertRange(horizonEnd.plusDays(5), horizonEnd.plusDays(10), ranges.get(0));
+        assertRange(horizonEnd.plusDays(12), horizonEnd.plusDays(14), ranges.get(1));
+    }
+
+    private static AvailabilityIndex indexWith(Object[]... bookings) {
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.findActiveBookingRanges()).thenReturn(new ArrayList<>(List.of(bookings)));
+        AvailabilityIndex index = new AvailabilityIndex(bookingRepository);
+        index.rebuild();
+        return index;
+    }
+
+    // Fila de findActiveBookingRanges: (id, productId, inicio, fin)
+    private static Object[] booking(Long id, LocalDate start, LocalDate end) {
+        return new Object[] {id, PRODUCT_ID, start, end};
+    }
+
+    private static void assertRange(LocalDate start, LocalDate end, LocalDate[] range) {
+        assertEquals(start, range[0]);
+        assertEquals(end, range[1]);
+    }
+}
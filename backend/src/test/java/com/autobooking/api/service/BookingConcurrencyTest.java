@@ -0,0 +1,173 @@
+package com.autobooking.api.service;
+
+import com.autobooking.api.model.Booking;
+import com.autobooking.api.model.Product;
+import com.autobooking.api.model.User;
+import com.autobooking.api.repository.BookingRepository;
+import com.autobooking.api.repository.ProductRepository;
+import com.autobooking.api.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Solicitudes de reserva concurrentes contra BookingService: ninguna combinación de hilos puede
+ * dejar dos reservas activas solapadas de un mismo producto.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingConcurrencyTest {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long userId;
+
+    @BeforeEach
+    void createUser() {
+        User user = new User();
+        user.setFirstName("Prueba");
+        user.setLastName("Concurrencia");
+        user.setEmail("concurrencia-" + UUID.randomUUID() + "@example.com");
+        user.setPassword("secreto");
+        userId = userRepository.save(user).getId();
+    }
+
+    @Test
+    void overlappingRequestsOnOneProductAdmitExactlyOne() throws Exception {
+        Long productId = createProduct();
+        // Todos los rangos contienen este día, así que se solapan entre sí
+        LocalDate day = LocalDate.now().plusDays(30);
+        int requests = 2000;
+
+        Outcomes outcomes = run(requests, i ->
+                bookingService.createBooking(userId, productId, day.minusDays(i % 5), day.plusDays(i % 7)));
+
+        assertEquals(1, outcomes.successes.get());
+        assertEquals(requests - 1, outcomes.conflicts.get());
+        assertEquals(0, outcomes.errors.get());
+        assertEquals(1, bookingRepository.findAllActiveBookingsForProduct(productId).size());
+    }
+
+    @Test
+    void mixedProductsNeverDoubleBook() throws Exception {
+        List<Long> productIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            productIds.add(createProduct());
+        }
+        LocalDate firstDay = LocalDate.now().plusDays(1);
+        int requests = 4000;
+
+        Outcomes outcomes = run(requests, i -> {
+            // Cada solicitud es determinista según su número
+            Random random = new Random(i);
+            Long productId = productIds.get(random.nextInt(productIds.size()));
+            LocalDate start = firstDay.plusDays(random.nextInt(90));
+            bookingService.createBooking(userId, productId, start, start.plusDays(random.nextInt(5)));
+        });
+
+        assertEquals(0, outcomes.errors.get());
+        assertEquals(requests, outcomes.successes.get() + outcomes.conflicts.get());
+        int admitted = 0;
+        for (Long productId : productIds) {
+            List<Booking> bookings = new ArrayList<>(bookingRepository.findAllActiveBookingsForProduct(productId));
+            bookings.sort(Comparator.comparing(Booking::getStartDate));
+            for (int i = 1; i < bookings.size(); i++) {
+                assertTrue(bookings.get(i).getStartDate().isAfter(bookings.get(i - 1).getEndDate()),
+                        "Reservas solapadas en el producto " + productId);
+            }
+            admitted += bookings.size();
+        }
+        assertEquals(outcomes.successes.get(), admitted);
+        assertFalse(admitted == 0);
+        System.out.printf("booking.stress requests=%d threads=%d products=%d admitted=%d conflicts=%d "
+                        + "elapsedMs=%d throughput=%.0f req/s%n",
+                requests, THREADS, productIds.size(), admitted, outcomes.conflicts.get(),
+                outcomes.elapsedMillis, requests * 1000.0 / Math.max(1, outcomes.elapsedMillis));
+    }
+
+    private Long createProduct() {
+        Product product = new Product("Auto " + UUID.randomUUID(), "Auto de la prueba de concurrencia",
+                new ArrayList<>(), null, new BigDecimal("100.00"));
+        return productRepository.save(product).getId();
+    }
+
+    // Reparte las solicitudes entre THREADS hilos que arrancan a la vez y cuenta los resultados
+    private static Outcomes run(int requests, BookingRequest request) throws Exception {
+        Outcomes outcomes = new Outcomes();
+        AtomicInteger next = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+                        try {
+                            request.send(i);
+                            outcomes.successes.incrementAndGet();
+                        } catch (IllegalStateException e) {
+                            outcomes.conflicts.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            outcomes.errors.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            long started = System.nanoTime();
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(2, TimeUnit.MINUTES);
+            }
+            outcomes.elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        } finally {
+            executor.shutdownNow();
+        }
+        return outcomes;
+    }
+
+    @FunctionalInterface
+    private interface BookingRequest {
+        void send(int index);
+    }
+
+    private static final class Outcomes {
+        private final AtomicInteger successes = new AtomicInteger();
+        private final AtomicInteger conflicts = new AtomicInteger();
+        private final AtomicInteger errors = new AtomicInteger();
+        private long elapsedMillis;
+    }
+}
@@ -0,0 +1,157 @@
+package com.autobooking.api.service;
+
+import com.autobooking.api.model.Category;
+import com.autobooking.api.model.Feature;
+import com.autobooking.api.model.Product;
+import com.autobooking.api.repository.CategoryRepository;
+import com.autobooking.api.repository.FeatureRepository;
+import com.autobooking.api.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Eliminar una categoría o una característica las quita de sus productos con una sola sentencia:
+ * los productos quedan sin ellas y la caché de segundo nivel (entidades, colecciones y consultas)
+ * no sigue devolviéndolas.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogDeletionTest {
+
+    private static final int PRODUCTS = 3;
+    private static final String FEATURES_ROLE = Product.class.getName() + ".features";
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private FeatureService featureService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private FeatureRepository featureRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void deletingACategoryDetachesItsProducts() {
+        Category category = categoryRepository.save(new Category("Borrar " + UUID.randomUUID()));
+        List<Long> productIds = addProducts(category, List.of());
+        warmCaches(productIds);
+        assertEquals(PRODUCTS, productRepository.findByCategoryId(category.getId()).size());
+
+        categoryService.deleteCategory(category.getId());
+
+        for (Long productId : productIds) {
+            assertFalse(cache().containsEntity(Product.class, productId));
+        }
+
+        assertFalse(categoryRepository.existsById(category.getId()));
+        assertTrue(productRepository.findByCategoryId(category.getId()).isEmpty());
+        inTransaction(() -> {
+            for (Long productId : productIds) {
+                assertNull(productRepository.findById(productId).orElseThrow().getCategory());
+            }
+        });
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM products WHERE category_id = ?", Integer.class, category.getId()));
+    }
+
+    @Test
+    void deletingAFeatureRemovesItFromEveryProduct() {
+        Feature deleted = featureRepository.save(new Feature("Borrar " + UUID.randomUUID(), "icono"));
+        Feature kept = featureRepository.save(new Feature("Conservar " + UUID.randomUUID(), "icono"));
+        List<Long> productIds = addProducts(null, List.of(deleted, kept));
+        warmCaches(productIds);
+        assertEquals(PRODUCTS, productRepository.findByFeatureId(deleted.getId()).size());
+
+        featureService.deleteFeature(deleted.getId());
+
+        for (Long productId : productIds) {
+            assertFalse(cache().containsCollection(FEATURES_ROLE, productId));
+        }
+
+        assertFalse(featureRepository.existsById(deleted.getId()));
+        assertTrue(productRepository.findByFeatureId(deleted.getId()).isEmpty());
+        assertEquals(PRODUCTS, productRepository.findByFeatureId(kept.getId()).size());
+        inTransaction(() -> {
+            for (Long productId : productIds) {
+                Set<Long> featureIds = productRepository.findById(productId).orElseThrow().getFeatures().stream()
+                        .map(Feature::getId).collect(Collectors.toSet());
+                assertEquals(Set.of(kept.getId()), featureIds);
+            }
+        });
+    }
+
+    // Carga los productos dos veces: la segunda lectura debe venir de la caché de segundo nivel,
+    // así la verificación posterior comprueba que el borrado la invalidó
+    private void warmCaches(List<Long> productIds) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (int pass = 0; pass < 2; pass++) {
+            statistics.clear();
+            inTransaction(() -> productIds.forEach(productId ->
+                    productRepository.findById(productId).orElseThrow().getFeatures().size()));
+        }
+        assertTrue(statistics.getDomainDataRegionStatistics("catalog-product").getHitCount() >= PRODUCTS,
+                "los productos no se leyeron de la caché de segundo nivel");
+        for (Long productId : productIds) {
+            assertTrue(cache().containsEntity(Product.class, productId));
+            assertTrue(cache().containsCollection(FEATURES_ROLE, productId));
+        }
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    private List<Long> addProducts(Category category, List<Feature> features) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = productRepository.save(new Product("Auto " + UUID.randomUUID(), "Descripción",
+                    new ArrayList<>(List.of("/api/images/borrar-" + i)), category, new BigDecimal("50.00")));
+            for (Feature feature : features) {
+                jdbcTemplate.update("INSERT INTO product_features (product_id, feature_id) VALUES (?, ?)",
+                        product.getId(), feature.getId());
+            }
+            ids.add(product.getId());
+        }
+        return ids;
+    }
+
+    private void inTransaction(Runnable action) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> action.run());
+    }
+}
@@ -0,0 +1,109 @@
+package com.autobooking.api.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Las versiones de CatalogVersion se guardan en la base de datos: otra instancia sobre la misma
+ * base ve el cambio en cuanto se confirma, y un ETag nunca se adelanta a los datos.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CatalogVersionTest {
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void changeOnOneInstanceIsSeenByAnother() {
+        // Otra instancia de la aplicación: sin estado compartido salvo la base de datos
+        CatalogVersion otherInstance = new CatalogVersion(jdbcTemplate, transactionManager);
+        String before = otherInstance.catalogETag();
+        assertEquals(before, catalogVersion.catalogETag());
+
+        categoryService.createCategory("Versión " + UUID.randomUUID());
+
+        String after = otherInstance.catalogETag();
+        assertNotEquals(before, after);
+        assertEquals(after, catalogVersion.catalogETag());
+    }
+
+    @Test
+    void etagIsWithheldUntilTheChangeCompletes() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        String before = catalogVersion.catalogETag();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            catalogVersion.catalogChanged();
+            assertNull(catalogVersion.catalogETag());
+        });
+        String committed = catalogVersion.catalogETag();
+        assertNotNull(committed);
+        assertNotEquals(before, committed);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            catalogVersion.catalogChanged();
+            status.setRollbackOnly();
+        });
+        assertEquals(committed, catalogVersion.catalogETag());
+    }
+
+    @Test
+    void availabilityVersionsArePerProduct() {
+        long productId = Math.abs(UUID.randomUUID().getMostSignificantBits());
+        String product = catalogVersion.availabilityETag(productId);
+        String other = catalogVersion.availabilityETag(productId + 1);
+
+        catalogVersion.availabilityChanged(productId);
+
+        assertNotEquals(product, catalogVersion.availabilityETag(productId));
+        assertEquals(other, catalogVersion.availabilityETag(productId + 1));
+    }
+
+    @Test
+    void conditionalGetRevalidatesAgainstTheStoredVersion() throws Exception {
+        String etag = mockMvc.perform(get("/api/categories"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/api/categories").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        categoryService.createCategory("Versión " + UUID.randomUUID());
+
+        mockMvc.perform(get("/api/categories").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", catalogVersion.catalogETag()));
+    }
+}
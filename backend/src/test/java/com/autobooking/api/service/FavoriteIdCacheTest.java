@@ -0,0 +1,185 @@
+package com.autobooking.api.service;
+
+import com.autobooking.api.model.Product;
+import com.autobooking.api.model.User;
+import com.autobooking.api.repository.ProductRepository;
+import com.autobooking.api.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Invalidación de FavoriteIdCache con altas y bajas concurrentes: una vez confirmada una alta o
+ * baja, ninguna lectura posterior puede devolver el conjunto anterior, aunque otro hilo lo
+ * estuviera cargando en ese momento.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class FavoriteIdCacheTest {
+
+    private static final int WRITERS = 8;
+    private static final int READERS = 8;
+    private static final int TOGGLES = 60;
+
+    @Autowired
+    private FavoriteService favoriteService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Long userId;
+
+    @BeforeEach
+    void createUser() {
+        User user = new User();
+        user.setFirstName("Prueba");
+        user.setLastName("Favoritos");
+        user.setEmail("favoritos-" + UUID.randomUUID() + "@example.com");
+        user.setPassword("secreto");
+        userId = userRepository.save(user).getId();
+    }
+
+    @Test
+    void loadOverlappingAnInvalidationIsNotCached() throws Exception {
+        FavoriteIdCache cache = new FavoriteIdCache(100, Duration.ofMinutes(5));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // La carga lee la base antes de la alta y termina después de la invalidación
+            Future<Set<Long>> stale = executor.submit(() -> cache.get(1L, id -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(invalidated);
+                return Set.of();
+            }));
+            await(loading);
+            cache.invalidateAfterCommit(1L);
+            invalidated.countDown();
+            assertEquals(Set.of(), stale.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(Set.of(7L), cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return Set.of(7L);
+        }));
+        assertEquals(2, loads.get());
+        assertEquals(Set.of(7L), cache.get(1L, id -> Set.of()));
+    }
+
+    @Test
+    void concurrentAddsAndRemovesAreSeenOnceCommitted() throws Exception {
+        // Cada escritor alterna su propio producto, así sabe qué debe ver después de cada cambio
+        List<Long> productIds = new ArrayList<>();
+        for (int i = 0; i < WRITERS; i++) {
+            productIds.add(createProduct());
+        }
+        List<String> stale = new ArrayList<>();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger reads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (Long productId : productIds) {
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < TOGGLES; i++) {
+                        boolean add = i % 2 == 0;
+                        if (add) {
+                            favoriteService.addFavorite(userId, productId);
+                        } else {
+                            favoriteService.removeFavorite(userId, productId);
+                        }
+                        if (favoriteService.isFavorite(userId, productId) != add) {
+                            synchronized (stale) {
+                                stale.add("producto " + productId + " tras " + (add ? "alta" : "baja") + " " + i);
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            // Los lectores recargan la caché sin parar mientras los escritores la invalidan
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < READERS; r++) {
+                readers.add(executor.submit(() -> {
+                    start.await();
+                    while (writing.get()) {
+                        favoriteService.countFavorites(userId);
+                        reads.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get(2, TimeUnit.MINUTES);
+            }
+            writing.set(false);
+            for (Future<?> reader : readers) {
+                reader.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(stale.isEmpty(), "Lecturas desactualizadas: " + stale);
+        assertTrue(reads.get() > 0);
+        // Con TOGGLES par, cada producto termina fuera de favoritos; se añade la mitad para comprobar el estado final
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < productIds.size(); i += 2) {
+            favoriteService.addFavorite(userId, productIds.get(i));
+            expected.add(productIds.get(i));
+        }
+        assertEquals(expected, new HashSet<>(userRepository.findFavoriteProductIds(userId)));
+        assertEquals(expected.size(), favoriteService.countFavorites(userId));
+        Map<Long, Boolean> lookup = favoriteService.lookupFavorites(userId, productIds);
+        for (Long productId : productIds) {
+            assertEquals(expected.contains(productId), lookup.get(productId), "producto " + productId);
+        }
+    }
+
+    private Long createProduct() {
+        Product product = new Product("Auto " + UUID.randomUUID(), "Auto de la prueba de favoritos",
+                new ArrayList<>(), null, new BigDecimal("100.00"));
+        return productRepository.save(product).getId();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.autobooking.api.service;
+
+import com.autobooking.api.model.Product;
+import com.autobooking.api.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Los productos guardan la ruta relativa de sus imágenes y las respuestas la convierten en URL
+ * absoluta con el host de cada petición.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ImageStoreTest {
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void externalizeStoresRelativePaths() {
+        String hash = imageStore.store(new ByteArrayInputStream(bytes("relativa")));
+        byte[] inline = bytes("en línea");
+        String dataUri = "data:image/png;base64," + Base64.getEncoder().encodeToString(inline);
+
+        List<String> stored = imageStore.externalize(List.of(
+                dataUri,
+                "http://antiguo.example.com:8080/api/images/" + hash,
+                "https://cdn.example.com/autos.jpg"));
+
+        assertEquals("/api/images/" + imageStore.store(new ByteArrayInputStream(inline)), stored.get(0));
+        assertEquals("/api/images/" + hash, stored.get(1));
+        assertEquals("https://cdn.example.com/autos.jpg", stored.get(2));
+    }
+
+    @Test
+    void responsesUseTheRequestHost() throws Exception {
+        String hash = imageStore.store(new ByteArrayInputStream(bytes("respuesta")));
+        Product product = productService.addProduct(new Product("Auto " + UUID.randomUUID(), "Descripción",
+                new ArrayList<>(List.of("http://localhost:8080/api/images/" + hash)), null, new BigDecimal("50.00")));
+
+        assertEquals(List.of("/api/images/" + hash), productRepository.findWithImagesById(product.getId()).orElseThrow().getImages());
+
+        mockMvc.perform(get("/api/products/{id}", product.getId()).header("Host", "autos.example.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.images[0]").value("http://autos.example.com/api/images/" + hash));
+        mockMvc.perform(get("/api/products/summary").header("Host", "otro.example.com:9090"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == " + product.getId() + ")].thumbnail")
+                        .value("http://otro.example.com:9090/api/images/" + hash));
+    }
+
+    @Test
+    void startupRewriteRelativizesStoredAbsoluteUrls() {
+        String hash = imageStore.store(new ByteArrayInputStream(bytes("migración")));
+        // Producto guardado antes del cambio, con la URL absoluta de entonces
+        Product product = productRepository.save(new Product("Auto " + UUID.randomUUID(), "Descripción",
+                new ArrayList<>(List.of("http://localhost:8080/api/images/" + hash, "https://cdn.example.com/autos.jpg")),
+                null, new BigDecimal("50.00")));
+
+        ProductService target = AopTestUtils.getTargetObject(productService);
+        ReflectionTestUtils.setField(target, "migrateInlineImages", true);
+        try {
+            productService.externalizeInlineImages();
+        } finally {
+            ReflectionTestUtils.setField(target, "migrateInlineImages", false);
+        }
+
+        assertEquals(List.of("/api/images/" + hash, "https://cdn.example.com/autos.jpg"),
+                productRepository.findWithImagesById(product.getId()).orElseThrow().getImages());
+    }
+
+    private static byte[] bytes(String text) {
+        return (text + " " + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8);
+    }
+}
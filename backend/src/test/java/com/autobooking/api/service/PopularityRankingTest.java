@@ -0,0 +1,206 @@
+package com.autobooking.api.service;
+
+import com.autobooking.api.model.Category;
+import com.autobooking.api.model.Product;
+import com.autobooking.api.repository.CategoryRepository;
+import com.autobooking.api.repository.ProductPopularityRepository;
+import com.autobooking.api.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Puntajes de PopularityRanking: decaimiento por vida media, guardado y carga en
+ * product_popularity, y eventos concurrentes con el refresco que no se pierden.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PopularityRankingTest {
+
+    private static final Duration HALF_LIFE = Duration.ofDays(7);
+    private static final double TOLERANCE = 1e-3;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductPopularityRepository popularityRepository;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void scoresHalveEveryHalfLife() {
+        Long productId = createProduct(null);
+        PopularityRanking ranking = newRanking(HALF_LIFE);
+        ranking.load();
+
+        for (int i = 0; i < 4; i++) {
+            ranking.favoriteAdded(productId);
+        }
+        ranking.refresh();
+        assertEquals(4.0, ranking.score(productId), TOLERANCE);
+
+        rewind(ranking, HALF_LIFE);
+        ranking.refresh();
+        assertEquals(2.0, ranking.score(productId), TOLERANCE);
+
+        rewind(ranking, HALF_LIFE.multipliedBy(2));
+        ranking.bookingCreated(productId);
+        ranking.refresh();
+        assertEquals(0.5 + PopularityRanking.BOOKING_WEIGHT, ranking.score(productId), TOLERANCE);
+    }
+
+    @Test
+    void persistedScoresLoadWithTheElapsedDecay() {
+        Long categoryId = categoryRepository.save(new Category("Popularidad " + UUID.randomUUID())).getId();
+        Long booked = createProduct(categoryId);
+        Long favorite = createProduct(categoryId);
+        PopularityRanking ranking = newRanking(HALF_LIFE);
+        ranking.load();
+        ranking.bookingCreated(booked);
+        ranking.favoriteAdded(favorite);
+        ranking.favoriteAdded(favorite);
+
+        ranking.persist();
+
+        assertEquals(3.0, scoreRow(booked), TOLERANCE);
+        assertEquals(2.0, scoreRow(favorite), TOLERANCE);
+
+        // Otra instancia arranca una vida media después del guardado
+        jdbcTemplate.update("UPDATE product_popularity SET updated_at = ?",
+                new Timestamp(System.currentTimeMillis() - HALF_LIFE.toMillis()));
+        PopularityRanking restarted = newRanking(HALF_LIFE);
+        restarted.load();
+
+        assertEquals(1.5, restarted.score(booked), TOLERANCE);
+        assertEquals(1.0, restarted.score(favorite), TOLERANCE);
+        assertEquals(List.of(booked, favorite), restarted.topProducts(categoryId, 10));
+        assertEquals(popularityRepository.count(), restarted.topProducts(null, restarted.topK()).size());
+    }
+
+    @Test
+    void eventsForAProductNewerThanTheCategoriesAreKept() {
+        PopularityRanking ranking = newRanking(HALF_LIFE);
+        ranking.load();
+        // Guardado sin pasar por el servicio: la versión del catálogo no cambia
+        Long productId = createProduct(null);
+        long deletedId = Long.MAX_VALUE;
+
+        ranking.favoriteAdded(productId);
+        ranking.favoriteAdded(deletedId);
+        ranking.refresh();
+        ranking.refresh();
+
+        assertEquals(1.0, ranking.score(productId), TOLERANCE);
+        assertEquals(0.0, ranking.score(deletedId));
+        Map<?, ?> pending = (Map<?, ?>) ReflectionTestUtils.getField(ranking, "pending");
+        assertFalse(pending.containsKey(deletedId));
+    }
+
+    @Test
+    void eventsRecordedDuringRefreshAreNotLost() throws Exception {
+        List<Long> productIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            productIds.add(createProduct(null));
+        }
+        // Vida media muy larga: el decaimiento durante la prueba no llega a un evento
+        PopularityRanking ranking = newRanking(Duration.ofDays(36500));
+        ranking.load();
+        int threads = 8;
+        int eventsPerThread = 5000;
+
+        AtomicBoolean recording = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        try {
+            Future<?> refresher = executor.submit(() -> {
+                start.await();
+                while (recording.get()) {
+                    ranking.refresh();
+                }
+                return null;
+            });
+            List<Future<?>> recorders = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Random random = new Random(t);
+                recorders.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < eventsPerThread; i++) {
+                        ranking.favoriteAdded(productIds.get(random.nextInt(productIds.size())));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> recorder : recorders) {
+                recorder.get(1, TimeUnit.MINUTES);
+            }
+            recording.set(false);
+            refresher.get(1, TimeUnit.MINUTES);
+        } finally {
+            executor.shutdownNow();
+        }
+        ranking.refresh();
+
+        double total = 0;
+        for (Long productId : productIds) {
+            total += ranking.score(productId);
+        }
+        assertEquals(threads * eventsPerThread * PopularityRanking.FAVORITE_WEIGHT, total, 0.5);
+    }
+
+    private PopularityRanking newRanking(Duration halfLife) {
+        return new PopularityRanking(productRepository, popularityRepository, catalogVersion, jdbcTemplate,
+                transactionManager, halfLife, 100);
+    }
+
+    // Simula el paso del tiempo desde el último refresco
+    private static void rewind(PopularityRanking ranking, Duration elapsed) {
+        long scoresAtMillis = (long) ReflectionTestUtils.getField(ranking, "scoresAtMillis");
+        ReflectionTestUtils.setField(ranking, "scoresAtMillis", scoresAtMillis - elapsed.toMillis());
+    }
+
+    private double scoreRow(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT score FROM product_popularity WHERE product_id = ?",
+                Double.class, productId);
+    }
+
+    private Long createProduct(Long categoryId) {
+        Category category = categoryId == null ? null : categoryRepository.findById(categoryId).orElseThrow();
+        Product product = new Product("Auto " + UUID.randomUUID(), "Auto de la prueba de popularidad",
+                new ArrayList<>(), category, new BigDecimal("100.00"));
+        return productRepository.save(product).getId();
+    }
+}
@@ -0,0 +1,149 @@
+package com.autobooking.api.service;
+
+import com.autobooking.api.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductSearchIndexTest {
+
+    private static final Long SEDANS = 10L;
+    private static final Long TRUCKS = 20L;
+    private static final Long GPS = 100L;
+    private static final Long SUNROOF = 101L;
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final List<Object[]> fields = new ArrayList<>();
+    private final List<Object[]> features = new ArrayList<>();
+
+    @Test
+    void rareTermsOutweighCommonOnes() {
+        product(1L, "Toyota Corolla", "Auto cómodo", SEDANS, "Sedán");
+        product(2L, "Toyota Hilux", "Auto robusto", TRUCKS, "Camioneta");
+        product(3L, "Toyota Yaris", "Auto cómodo", SEDANS, "Sedán");
+        product(4L, "Nissan Frontier", "Auto robusto", TRUCKS, "Camioneta");
+
+        // "toyota" aparece en tres productos y "frontier" en uno: gana el término raro
+        assertEquals(List.of(4L, 1L, 2L, 3L), index().search("toyota frontier", null, null));
+    }
+
+    @Test
+    void nameMatchesOutrankDescriptionMatches() {
+        product(1L, "Auto compacto", "Ideal para viajes largos", SEDANS, "Sedán");
+        product(2L, "Auto urbano", "Compacto ideal para viajes", SEDANS, "Sedán");
+
+        assertEquals(List.of(1L, 2L), index().search("compacto", null, null));
+    }
+
+    @Test
+    void shorterDocumentsRankHigherForTheSameFrequency() {
+        product(1L, "Camioneta", "Espaciosa con tracción integral, caja automática y asientos de cuero", TRUCKS, "Camioneta");
+        product(2L, "Camioneta", "Espaciosa", TRUCKS, "Camioneta");
+        product(3L, "Sedán", "Económico", SEDANS, "Sedán");
+
+        assertEquals(List.of(2L, 1L), index().search("espaciosa", null, null));
+    }
+
+    @Test
+    void moreMatchingTermsRankHigher() {
+        product(1L, "Sedán eléctrico", "Autonomía de ciudad", SEDANS, "Sedán");
+        product(2L, "Sedán híbrido", "Autonomía de ciudad", SEDANS, "Sedán");
+        product(3L, "Auto eléctrico", "Autonomía de ruta", TRUCKS, "Camioneta");
+        product(4L, "Auto híbrido", "Autonomía de ruta", TRUCKS, "Camioneta");
+
+        // "sedan" también cuenta por el nombre de la categoría, así que el 2 supera al 3
+        assertEquals(List.of(1L, 2L, 3L), index().search("sedan electrico", null, null));
+    }
+
+    @Test
+    void queryAndTextMatchWithoutAccents() {
+        product(1L, "Camión de carga", "Con tracción 4x4", TRUCKS, "Camioneta");
+        product(2L, "Sedan", "Económico", SEDANS, "Sedán");
+
+        ProductSearchIndex index = index();
+
+        assertEquals(List.of(1L), index.search("CAMION traccion", null, null));
+        assertEquals(List.of(2L), index.search("económico", null, null));
+        assertEquals(List.of(2L), index.search("SEDÁN", SEDANS, null));
+    }
+
+    @Test
+    void categoryAndFeatureFilterTheMatches() {
+        product(1L, "Toyota Corolla", "Sedán familiar", SEDANS, "Sedán");
+        product(2L, "Toyota Hilux", "Camioneta de trabajo", TRUCKS, "Camioneta");
+        product(3L, "Toyota Yaris", "Sedán urbano", SEDANS, "Sedán");
+        feature(1L, GPS, "Navegador GPS");
+        feature(3L, SUNROOF, "Techo solar");
+        feature(2L, GPS, "Navegador GPS");
+
+        ProductSearchIndex index = index();
+
+        assertEquals(List.of(1L, 3L), index.search("toyota", SEDANS, null));
+        assertEquals(List.of(1L, 2L), index.search("toyota", null, GPS));
+        assertEquals(List.of(1L), index.search("toyota", SEDANS, GPS));
+        assertTrue(index.search("toyota", TRUCKS, SUNROOF).isEmpty());
+        // Los nombres de las características también se indexan
+        assertEquals(List.of(3L), index.search("techo solar", null, null));
+    }
+
+    @Test
+    void tiesAreOrderedById() {
+        product(3L, "Auto", "Rojo", SEDANS, "Sedán");
+        product(1L, "Auto", "Rojo", SEDANS, "Sedán");
+        product(2L, "Auto", "Rojo", SEDANS, "Sedán");
+
+        assertEquals(List.of(1L, 2L, 3L), index().search("rojo", null, null));
+    }
+
+    @Test
+    void queriesWithoutIndexableTermsMatchNothing() {
+        product(1L, "Auto de la ciudad", "Para la familia", SEDANS, "Sedán");
+
+        ProductSearchIndex index = index();
+
+        assertTrue(index.search("de la", null, null).isEmpty());
+        assertTrue(index.search("   ", null, null).isEmpty());
+        assertTrue(index.search("submarino", null, null).isEmpty());
+    }
+
+    @Test
+    void changedProductsAreReadAgainBeforeTheNextSearch() {
+        product(1L, "Toyota Corolla", "Sedán", SEDANS, "Sedán");
+        product(2L, "Toyota Hilux", "Camioneta", TRUCKS, "Camioneta");
+        ProductSearchIndex index = index();
+        assertEquals(List.of(1L, 2L), index.search("toyota", null, null));
+
+        // El 1 cambia de nombre y el 2 se elimina
+        when(productRepository.findSearchFieldsByIds(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[] {1L, "Nissan Sentra", "Sedán", SEDANS, "Sedán"}));
+        when(productRepository.findSearchFeaturesByIds(anyCollection())).thenReturn(List.of());
+        index.productChanged(1L);
+        index.productChanged(2L);
+
+        assertTrue(index.search("toyota", null, null).isEmpty());
+        assertEquals(List.of(1L), index.search("nissan", null, null));
+    }
+
+    private ProductSearchIndex index() {
+        when(productRepository.findSearchFields()).thenReturn(fields);
+        when(productRepository.findSearchFeatures()).thenReturn(features);
+        ProductSearchIndex index = new ProductSearchIndex(productRepository);
+        index.build();
+        return index;
+    }
+
+    private void product(Long id, String name, String description, Long categoryId, String categoryName) {
+        fields.add(new Object[] {id, name, description, categoryId, categoryName});
+    }
+
+    private void feature(Long productId, Long featureId, String name) {
+        features.add(new Object[] {productId, featureId, name});
+    }
+}
@@ -0,0 +1,44 @@
+package com.autobooking.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchTokenizerTest {
+
+    @Test
+    void foldsAccentsDiaeresesAndCase() {
+        assertEquals(List.of("sedan", "camion", "pinguino", "nandu"),
+                SearchTokenizer.tokenize("SEDÁN Camión pingüino Ñandú"));
+        assertEquals(SearchTokenizer.tokenize("sedan electrico"), SearchTokenizer.tokenize("Sedán Eléctrico"));
+    }
+
+    @Test
+    void foldsDecomposedCharacters() {
+        // "é" escrita como "e" seguida de la tilde combinante U+0301
+        assertEquals(List.of("electrico"), SearchTokenizer.tokenize("ele\u0301ctrico"));
+    }
+
+    @Test
+    void splitsOnAnythingButLettersAndDigits() {
+        assertEquals(List.of("4x4", "aire", "acondicionado", "gps", "2024"),
+                SearchTokenizer.tokenize("4x4, aire-acondicionado/GPS (2024)"));
+    }
+
+    @Test
+    void dropsStopWordsAndKeepsRepeatsInOrder() {
+        assertEquals(List.of("auto", "familia", "auto", "ciudad"),
+                SearchTokenizer.tokenize("Un auto para la familia y el auto de la ciudad"));
+    }
+
+    @Test
+    void blankOrMissingTextHasNoTerms() {
+        assertTrue(SearchTokenizer.tokenize(null).isEmpty());
+        assertTrue(SearchTokenizer.tokenize("   ").isEmpty());
+        assertTrue(SearchTokenizer.tokenize("de la y").isEmpty());
+        assertTrue(SearchTokenizer.tokenize("¡¿...?!").isEmpty());
+    }
+}
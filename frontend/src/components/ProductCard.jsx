@@ -3,7 +3,9 @@ import { Link } from 'react-router-dom';
 import { useAuth } from '../contexts/AuthContext';
 import './ProductCard.css';
 
-const ProductCard = ({ product, onFavoriteRemoved }) => {
+// favorite: true/false si el listado ya lo consultó (useFavoriteLookup), null mientras lo consulta
+// y undefined para que la tarjeta lo consulte por su cuenta
+const ProductCard = ({ product, onFavoriteRemoved, favorite }) => {
   if (!product) return null;
 
   const { id, name, description, images, category, features, price } = product;
@@ -11,7 +13,7 @@ const ProductCard = ({ product, onFavoriteRemoved }) => {
   const isAuthenticated = !!currentUser;
 
   // Estado para el favorito
-  const [isFavorite, setIsFavorite] = useState(false);
+  const [isFavorite, setIsFavorite] = useState(!!favorite);
   const [isProcessing, setIsProcessing] = useState(false);
 
   // Obtener primera imagen o usar una imagen por defecto
@@ -42,6 +44,10 @@ const ProductCard = ({ product, onFavoriteRemoved }) => {
         setIsFavorite(false);
         return;
       }
+      if (favorite !== undefined) {
+        setIsFavorite(!!favorite);
+        return;
+      }
       try {
         const token = localStorage.getItem('authToken');
         if (!token) return;
@@ -67,7 +73,7 @@ const ProductCard = ({ product, onFavoriteRemoved }) => {
       }
     };
     checkFavorite();
-  }, [id, isAuthenticated, currentUser?.id]);
+  }, [id, isAuthenticated, currentUser?.id, favorite]);
 
   // Manejar clic en favorito
   const handleFavoriteClick = async (e) => {
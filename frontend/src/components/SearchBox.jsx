@@ -2,6 +2,7 @@ import { useState, useEffect } from 'react';
 import './SearchBox.css';
 
 const SearchBox = ({ onSearch, categories = [] }) => {
+  const [query, setQuery] = useState('');
   const [startDate, setStartDate] = useState('');
   const [endDate, setEndDate] = useState('');
   const [categoryId, setCategoryId] = useState('');
@@ -10,11 +11,14 @@ const SearchBox = ({ onSearch, categories = [] }) => {
 
   // Validar formulario cuando cambian los valores
   useEffect(() => {
-    // Validar fechas
+    // Validar fechas (opcionales si se busca por texto)
     let newErrors = {};
+    const hasQuery = query.trim() !== '';
 
     if (!startDate && !endDate) {
-      newErrors.dates = 'Selecciona las fechas para tu búsqueda';
+      if (!hasQuery) {
+        newErrors.dates = 'Selecciona las fechas o escribe qué buscas';
+      }
     } else if (!startDate) {
       newErrors.startDate = 'Selecciona una fecha de inicio';
     } else if (!endDate) {
@@ -25,8 +29,8 @@ const SearchBox = ({ onSearch, categories = [] }) => {
     }
 
     setErrors(newErrors);
-    setIsValid(Object.keys(newErrors).length === 0 && startDate && endDate);
-  }, [startDate, endDate, categoryId]);
+    setIsValid(Object.keys(newErrors).length === 0 && (hasQuery || (startDate && endDate)));
+  }, [query, startDate, endDate, categoryId]);
 
   const handleSubmit = (e) => {
     e.preventDefault();
@@ -35,8 +39,9 @@ const SearchBox = ({ onSearch, categories = [] }) => {
     if (!isValid) return;
 
     onSearch({
-      startDate,
-      endDate,
+      query: query.trim() || null,
+      startDate: startDate || null,
+      endDate: endDate || null,
       categoryId: categoryId || null,
     });
   };
@@ -52,6 +57,23 @@ const SearchBox = ({ onSearch, categories = [] }) => {
 
       <form onSubmit={handleSubmit} className="search-form">
         <div className="search-fields">
+          <div className="form-group">
+            <label htmlFor="query">
+              <span role="img" aria-label="Lupa" style={{ marginRight: '6px' }}>
+                🔍
+              </span>
+              ¿Qué buscas?
+            </label>
+            <input
+              type="search"
+              id="query"
+              value={query}
+              onChange={(e) => setQuery(e.target.value)}
+              placeholder="Marca, modelo o característica (ej.: sedán con GPS)"
+              maxLength={200}
+            />
+          </div>
+
           <div className="date-range-group">
             <div className="form-group">
               <label htmlFor="startDate">
@@ -1,5 +1,6 @@
 import { useEffect, useRef, useState } from 'react';
 import ProductCard from './ProductCard';
+import useFavoriteLookup from './useFavoriteLookup';
 import './SearchResults.css';
 
 const ANIMATION_DURATION = 400; // ms
@@ -7,6 +8,7 @@ const ANIMATION_DURATION = 400; // ms
 const SearchResults = ({ 
   results = [], 
   totalProducts = 0, 
+  query = null,
   categoryName = null, 
   startDate = null, 
   endDate = null,
@@ -16,6 +18,7 @@ const SearchResults = ({
   const [show, setShow] = useState(true);
   const [displayedResults, setDisplayedResults] = useState(results);
   const prevResultsRef = useRef(results);
+  const favoriteOf = useFavoriteLookup(displayedResults);
 
   // Solo animar opacidad y desplazamiento, no height
   useEffect(() => {
@@ -67,6 +70,9 @@ const SearchResults = ({
   } else {
     searchTitle = 'Productos encontrados';
   }
+  if (query) {
+    searchTitle += ` para "${query}"`;
+  }
   if (startDate && endDate) {
     searchTitle += ` del ${formatDate(startDate)} al ${formatDate(endDate)}`;
   }
@@ -86,7 +92,7 @@ const SearchResults = ({
       >
         {displayedResults.map(product => (
           <div className="search-result-item" key={product.id}>
-            <ProductCard product={product} />
+            <ProductCard product={product} favorite={favoriteOf(product.id)} />
           </div>
         ))}
       </div>
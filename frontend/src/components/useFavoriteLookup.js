@@ -0,0 +1,54 @@
+import { useEffect, useState } from 'react';
+import { useAuth } from '../contexts/AuthContext';
+
+// Máximo de productos por consulta (FavoriteService.MAX_LOOKUP_IDS en el backend)
+const MAX_LOOKUP_IDS = 200;
+
+/**
+ * Consulta en una sola petición cuáles de los productos mostrados son favoritos del usuario,
+ * en lugar de una petición por tarjeta.
+ *
+ * Devuelve una función favoriteOf(productId) para pasar a ProductCard como prop favorite:
+ * true/false si se conoce, null mientras la consulta está en curso y undefined si no se pudo
+ * consultar (la tarjeta lo consulta entonces por su cuenta).
+ */
+export default function useFavoriteLookup(products) {
+  const { currentUser } = useAuth();
+  const ids = products.slice(0, MAX_LOOKUP_IDS).map((product) => product.id).join(',');
+  const [lookup, setLookup] = useState({ ids: null, favorites: null });
+
+  useEffect(() => {
+    const token = localStorage.getItem('authToken');
+    if (!currentUser?.id || !token || !ids) {
+      return;
+    }
+    const tokenUserId = JSON.parse(atob(token.split('.')[1])).id;
+    let cancelled = false;
+    fetch(`http://localhost:8080/api/users/${tokenUserId}/favorites/lookup?productIds=${ids}`, {
+      headers: { Authorization: `Bearer ${token}` }
+    })
+      .then((response) => (response.ok ? response.json() : null))
+      .catch(() => null)
+      .then((data) => {
+        if (!cancelled) {
+          setLookup({ ids, favorites: data ? data.favorites : undefined });
+        }
+      });
+    return () => {
+      cancelled = true;
+    };
+  }, [ids, currentUser?.id]);
+
+  return (productId) => {
+    if (!currentUser?.id) {
+      return false;
+    }
+    if (lookup.ids !== ids) {
+      return null;
+    }
+    if (lookup.favorites === undefined || !(String(productId) in lookup.favorites)) {
+      return undefined;
+    }
+    return lookup.favorites[productId];
+  };
+}
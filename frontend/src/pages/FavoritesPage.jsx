@@ -106,6 +106,7 @@ const FavoritesPage = () => {
                 <div key={product.id} className="favorite-item">
                   <ProductCard
                     product={product}
+                    favorite={true}
                     onFavoriteRemoved={() => handleFavoriteRemoved(product.id)}
                   />
                 </div>
@@ -3,6 +3,7 @@ import { Link } from 'react-router-dom';
 import SearchBox from '../components/SearchBox';
 import SearchResults from '../components/SearchResults';
 import ProductCard from '../components/ProductCard';
+import useFavoriteLookup from '../components/useFavoriteLookup';
 import Footer from '../components/Footer';
 import './HomePage.css';
 
@@ -23,12 +24,17 @@ const HomePage = () => {
   // Estado para los resultados de búsqueda
   const [searchResults, setSearchResults] = useState(null);
   const [searchParams, setSearchParams] = useState({
+    query: null,
     startDate: null,
     endDate: null,
     categoryId: null,
     categoryName: null
   });
 
+  // Favoritos de las recomendaciones en una sola petición
+  const recommendedProducts = products.slice(0, 4);
+  const favoriteOf = useFavoriteLookup(recommendedProducts);
+
   // Cargar categorías y productos al montar el componente
   useEffect(() => {
     const fetchCategories = async () => {
@@ -84,6 +90,7 @@ const HomePage = () => {
       let url = 'http://localhost:8080/api/products/search?';
       const queryParams = [];
       
+      if (params.query) queryParams.push(`q=${encodeURIComponent(params.query)}`);
       if (params.startDate) queryParams.push(`startDate=${params.startDate}`);
       if (params.endDate) queryParams.push(`endDate=${params.endDate}`);
       if (params.categoryId) queryParams.push(`categoryId=${params.categoryId}`);
@@ -112,6 +119,7 @@ const HomePage = () => {
       }
       
       setSearchParams({
+        query: params.query,
         startDate: params.startDate,
         endDate: params.endDate,
         categoryId: params.categoryId,
@@ -175,6 +183,7 @@ const HomePage = () => {
             <SearchResults 
               results={searchResults ? searchResults.results : []}
               totalProducts={searchResults ? searchResults.totalProducts : 0}
+              query={searchParams.query}
               categoryName={searchParams.categoryName}
               startDate={searchParams.startDate}
               endDate={searchParams.endDate}
@@ -194,9 +203,9 @@ const HomePage = () => {
             ) : products.length === 0 ? (
               <p className="empty-text">No hay productos disponibles</p>
             ) : (
-              products.slice(0, 4).map(product => (
+              recommendedProducts.map(product => (
                 <div key={product.id} className="product-card-wrapper">
-                  <ProductCard product={product} />
+                  <ProductCard product={product} favorite={favoriteOf(product.id)} />
                 </div>
               ))
             )}